@@ -0,0 +1,136 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.benchmark;
+
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypherdsl.CypherQuery;
+import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.expression.Expression;
+import org.neo4j.cypherdsl.expression.NumericExpression;
+import org.neo4j.cypherdsl.query.Expressions;
+import org.neo4j.cypherdsl.query.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders long chains of add() and or() calls, which nest to the left, with the iterative
+ * renderer and with a recursive reference renderer that walks the tree the way rendering
+ * used to. The recursive renderer needs a stack frame per term, so depths are kept low
+ * enough for it not to overflow.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ChainBenchmark
+{
+    @Param( {"16", "1024", "4096"} )
+    public int depth;
+
+    @Param( {"ADD", "OR"} )
+    public String chain;
+
+    private Expression expression;
+
+    @Setup
+    public void setup()
+    {
+        if ( chain.equals( "ADD" ) )
+        {
+            NumericExpression sum = identifier( "n" ).number( "value" );
+            for ( int i = 0; i < depth; i++ )
+            {
+                sum = sum.add( i );
+            }
+            expression = sum;
+        }
+        else
+        {
+            BooleanExpression or = identifier( "n" ).number( "value" ).eq( 0 );
+            for ( int i = 1; i < depth; i++ )
+            {
+                or = or.or( identifier( "n" ).number( "value" ).eq( i ) );
+            }
+            expression = or;
+        }
+    }
+
+    @Benchmark
+    public String iterative()
+    {
+        StringBuilder builder = new StringBuilder();
+        expression.asString( builder );
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String recursive()
+    {
+        StringBuilder builder = new StringBuilder();
+        renderRecursive( expression, builder );
+        return builder.toString();
+    }
+
+    private static void renderRecursive( Expression expression, StringBuilder builder )
+    {
+        if ( expression.getClass() == Value.class )
+        {
+            Value value = (Value) expression;
+            if ( value.operator != null )
+            {
+                if ( value.operator.left != null )
+                {
+                    renderRecursive( value.operator.left, builder );
+                }
+                builder.append( value.operator.operator );
+            }
+            renderRecursive( value.value, builder );
+        }
+        else if ( expression instanceof CypherQuery.Or )
+        {
+            Expression[] terms = ( (Expressions) ( (Value) expression ).value ).expressions;
+            for ( int i = 0; i < terms.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    builder.append( " or " );
+                }
+                renderRecursive( terms[i], builder );
+            }
+        }
+        else
+        {
+            expression.asString( builder );
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypherdsl.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding a query for the wire via toString().getBytes() against rendering it
+ * straight into a heap or direct ByteBuffer with Query.writeTo(ByteBuffer).
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EncodeBenchmark
+{
+    @Param( {"START_WHERE_RETURN", "PATH_MATCH", "DEEP_AND_OR"} )
+    public QueryShapes shape;
+
+    private Query query;
+    private ByteBuffer heap;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup()
+    {
+        query = shape.build().toQuery();
+        heap = ByteBuffer.allocate( 64 * 1024 );
+        direct = ByteBuffer.allocateDirect( 64 * 1024 );
+    }
+
+    @Benchmark
+    public ByteBuffer toStringGetBytes()
+    {
+        heap.clear();
+        return heap.put( query.toString().getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    @Benchmark
+    public ByteBuffer writeToHeapBuffer()
+    {
+        heap.clear();
+        query.writeTo( heap );
+        return heap;
+    }
+
+    @Benchmark
+    public ByteBuffer writeToDirectBuffer()
+    {
+        direct.clear();
+        query.writeTo( direct );
+        return direct;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.PathBuilder;
+import org.neo4j.cypherdsl.querydsl.BeanMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares mapping a result row to a bean with the compiled BeanMapper against the reflective
+ * QBean path that Projection used before, which looks every field up by path name for each row.
+ * The bean only has String fields, as the QBean path can not set anything else.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ProjectionBenchmark
+{
+    public static class Person
+    {
+        public String name;
+        public String email;
+        public String city;
+        public String country;
+        public String phone;
+    }
+
+    private Map<String, Object> row;
+    private QBean<Person> bean;
+    private BeanMapper<Person> mapper;
+
+    @Setup
+    public void setup()
+    {
+        row = new HashMap<String, Object>();
+        row.put( "name", "John" );
+        row.put( "email", "john@example.com" );
+        row.put( "city", "Malmo" );
+        row.put( "country", "Sweden" );
+        row.put( "phone", "+46 555 1234" );
+
+        PathBuilder<Person> entity = new PathBuilder<Person>( Person.class, "entity" );
+        Field[] fields = Person.class.getFields();
+        Expression[] fieldExpressions = new Expression[fields.length];
+        for ( int i = 0; i < fields.length; i++ )
+        {
+            fieldExpressions[i] = entity.getString( fields[i].getName() );
+        }
+        bean = Projections.fields( Person.class, fieldExpressions );
+        mapper = BeanMapper.of( Person.class );
+    }
+
+    @Benchmark
+    public Person reflective()
+    {
+        List<Expression<?>> expressions = bean.getArgs();
+        Object[] args = new Object[expressions.size()];
+        int idx = 0;
+        for ( Expression<?> expression : expressions )
+        {
+            args[idx++] = row.get( ( (Path) expression ).getMetadata().getElement().toString() );
+        }
+        return bean.newInstance( args );
+    }
+
+    @Benchmark
+    public Person compiled()
+    {
+        return mapper.map( row );
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of building queries with the DSL separately from the cost of rendering them.
+ * <p/>
+ * build() only creates the clause and expression objects, render() only calls toString() on a query that
+ * was built in setup, and buildAndRender() is what a typical caller does for every query it sends.
+ * Run with "-prof gc" to see the allocation rate of each.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class QueryBenchmark
+{
+    @Param( {"START_RETURN", "START_WHERE_RETURN", "PATH_MATCH", "VARIABLE_LENGTH_PATH", "FOR_EACH", "DEEP_AND_OR"} )
+    public QueryShapes shape;
+
+    private Execute query;
+
+    @Setup
+    public void setup()
+    {
+        query = shape.build();
+    }
+
+    @Benchmark
+    public Execute build()
+    {
+        return shape.build();
+    }
+
+    @Benchmark
+    public String render()
+    {
+        return query.toString();
+    }
+
+    @Benchmark
+    public String buildAndRender()
+    {
+        return shape.build().toString();
+    }
+}
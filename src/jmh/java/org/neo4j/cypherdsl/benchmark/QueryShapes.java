@@ -0,0 +1,169 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.benchmark;
+
+import static org.neo4j.cypherdsl.CypherQuery.as;
+import static org.neo4j.cypherdsl.CypherQuery.coalesce;
+import static org.neo4j.cypherdsl.CypherQuery.create;
+import static org.neo4j.cypherdsl.CypherQuery.id;
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.in;
+import static org.neo4j.cypherdsl.CypherQuery.literal;
+import static org.neo4j.cypherdsl.CypherQuery.max;
+import static org.neo4j.cypherdsl.CypherQuery.min;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.nodesById;
+import static org.neo4j.cypherdsl.CypherQuery.not;
+import static org.neo4j.cypherdsl.CypherQuery.order;
+import static org.neo4j.cypherdsl.CypherQuery.range;
+import static org.neo4j.cypherdsl.CypherQuery.round;
+import static org.neo4j.cypherdsl.CypherQuery.start;
+import static org.neo4j.cypherdsl.CypherQuery.sum;
+import static org.neo4j.cypherdsl.CypherQuery.type;
+import static org.neo4j.cypherdsl.CypherQuery.value;
+import static org.neo4j.cypherdsl.Order.DESCENDING;
+
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.grammar.Execute;
+
+/**
+ * Query shapes used by the benchmarks. These are taken from CypherReferenceTest and CypherCookbookTest,
+ * so that the numbers reflect queries that are actually written with the DSL.
+ */
+public enum QueryShapes
+{
+    /**
+     * START n=node(1) RETURN n
+     */
+    START_RETURN
+            {
+                @Override
+                public Execute build()
+                {
+                    return start( nodesById( "n", 1 ) ).returns( identifier( "n" ) );
+                }
+            },
+
+    /**
+     * START n=node(3,1) WHERE (n.age<30 and n.name="Tobias") or not(n.name="Tobias") RETURN n
+     */
+    START_WHERE_RETURN
+            {
+                @Override
+                public Execute build()
+                {
+                    return start( nodesById( "n", 3, 1 ) ).
+                            where( identifier( "n" ).number( "age" ).lt( 30 ).and( identifier( "n" ).string( "name" )
+                                    .eq( "Tobias" ) )
+                                    .or( not( identifier( "n" ).string( "name" ).eq( "Tobias" ) ) ) ).
+                            returns( identifier( "n" ) );
+                }
+            },
+
+    /**
+     * Cookbook 5.8.1: path patterns with named relationships, functions, ORDER BY and LIMIT
+     */
+    PATH_MATCH
+            {
+                @Override
+                public Execute build()
+                {
+                    return start( nodesById( "origin", 1 ) ).
+                            match( node( "origin" ).both( "KNOWS", "WORKSAT" ).as( "r1" ).node( "c" ).both( "KNOWS",
+                                    "WORKSAT" ).as( "r2" ).node( "candidate" ) ).
+                            where( type( identifier( "r1" ) ).eq( type( identifier( "r2" ) ) ).and( not( node(
+                                    "origin" ).both( "KNOWS" ).node( "candidate" ) ) ) ).
+                            returns( as( identifier( "origin" ).property( "name" ), "origin" ),
+                                    as( identifier( "candidate" ).property( "name" ), "candidate" ),
+                                    as( sum( round( identifier( "r2" ).property( "weight" ).add( coalesce(
+                                            identifier( "r2" ).property( "activity" ), literal( 0 ) )
+                                            .times( 2 ) ) ) ), "boost" ) ).
+                            orderBy( order( identifier( "boost" ), DESCENDING ) ).
+                            limit( 10 );
+                }
+            },
+
+    /**
+     * Cookbook 5.12.2: variable length relationships and property maps
+     */
+    VARIABLE_LENGTH_PATH
+            {
+                @Override
+                public Execute build()
+                {
+                    return start( nodesById( "root", 4 ) ).
+                            match( node( "root" ).out( "LINK" ).hops( 0, null ).node( "before" ),
+                                    node( "after" ).out( "LINK" ).hops( 0, null ).node( "root" ),
+                                    node( "before" ).out( "LINK" ).as( "old" ).node( "after" ) ).
+                            where( identifier( "before" ).property( "value" ).lt( 25 ).and( literal( 25 ).lt(
+                                    identifier( "after" ).property( "value" ) ) ) ).
+                            create( node( "before" ).out( "LINK" ).node().values( value( "value",
+                                    25 ) ).out( "LINK" ).node( "after" ) ).
+                            delete( identifier( "old" ) );
+                }
+            },
+
+    /**
+     * Cookbook 5.10.2: CREATE with FOREACH followed by WITH/MATCH/WHERE/CREATE chains
+     */
+    FOR_EACH
+            {
+                @Override
+                public Execute build()
+                {
+                    return create( node( "center" ) ).
+                            forEach( in( "x", range( 1, 10 ) ).create( node( "leaf" ).values( value( "count",
+                                    identifier( "x" ) ) ), node( "center" ).out( "X" ).node( "leaf" ) ) ).
+                            with( identifier( "center" ) ).
+                            match( node( "large_leaf" ).in().node( "center" ).out().node( "small_leaf" ) ).
+                            where( identifier( "large_leaf" ).property( "count" ).eq( identifier( "small_leaf" )
+                                    .property( "count" ).add( 1 ) ) ).
+                            create( node( "small_leaf" ).out( "X" ).node( "large_leaf" ) ).
+                            with( identifier( "center" ), as( min( identifier( "small_leaf" ).property( "count" ) ),
+                                    "min" ), as( max( identifier( "large_leaf" ).property( "count" ) ), "max" ) ).
+                            match( node( "first_leaf" ).in().node( "center" ).out().node( "last_leaf" ) ).
+                            where( identifier( "first_leaf" ).property( "count" ).eq( identifier( "min" ) ).and(
+                                    identifier( "last_leaf" ).property( "count" ).eq( identifier( "max" ) ) ) ).
+                            create( node( "last_leaf" ).out( "X" ).node( "first_leaf" ) ).
+                            returns( as( id( identifier( "center" ) ), "id" ) );
+                }
+            },
+
+    /**
+     * A generated filter with 64 terms, chained with and/or the way it is done in a loop
+     */
+    DEEP_AND_OR
+            {
+                @Override
+                public Execute build()
+                {
+                    Identifier n = identifier( "n" );
+                    BooleanExpression filter = n.number( "p0" ).eq( 0 );
+                    for ( int i = 1; i < 64; i++ )
+                    {
+                        BooleanExpression term = n.number( "p" + i ).eq( i );
+                        filter = i % 2 == 0 ? filter.and( term ) : filter.or( term );
+                    }
+                    return start( nodesById( "n", 1 ) ).where( filter ).returns( n );
+                }
+            };
+
+    public abstract Execute build();
+}
@@ -18,15 +18,79 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.cypherdsl.query.QueryVisitor;
+
 /**
- * Interface for all parts of the model that should be externalizable to a StringBuilder.
+ * Interface for all parts of the model that should be externalizable to an Appendable,
+ * such as a StringBuilder, Writer or CharBuffer. Implementations override one of the two
+ * asString methods: the parts of this library write to any Appendable, while older
+ * implementations that only write to a StringBuilder keep working.
  */
 public interface AsString
 {
     /**
-     * Implementations of this method should append the string representation of the model.
+     * Append the string representation of the model. By default the model is written to a
+     * StringBuilder with {@link #asString(StringBuilder)}, which is then appended.
+     *
+     * @param appendable
+     * @throws IOException if the appendable fails to accept the output
+     */
+    default void asString( Appendable appendable )
+            throws IOException
+    {
+        if ( appendable instanceof StringBuilder )
+        {
+            asString( (StringBuilder) appendable );
+        }
+        else
+        {
+            StringBuilder builder = new StringBuilder();
+            asString( builder );
+            appendable.append( builder );
+        }
+    }
+
+    /**
+     * Cheap estimate of the length of the string representation, used to presize
+     * render buffers. Composite parts add up the estimates of their children, and
+     * identifiers and string literals return their exact length.
+     *
+     * @return estimated number of characters
+     */
+    default int estimatedLength()
+    {
+        return 8;
+    }
+
+    /**
+     * Walk this part of the model, and its children, with the given visitor.
+     *
+     * @param visitor
+     */
+    default void accept( QueryVisitor visitor )
+    {
+        visitor.visitOther( this );
+    }
+
+    /**
+     * Append the string representation of the model to a StringBuilder. By default this
+     * calls {@link #asString(Appendable)}.
      *
      * @param builder
      */
-    void asString( StringBuilder builder );
+    default void asString( StringBuilder builder )
+    {
+        try
+        {
+            asString( (Appendable) builder );
+        }
+        catch ( IOException e )
+        {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException( e );
+        }
+    }
 }
@@ -21,25 +21,31 @@ package org.neo4j.cypherdsl;
 import static org.neo4j.cypherdsl.query.Query.checkEmpty;
 import static org.neo4j.cypherdsl.query.Query.checkNull;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.neo4j.cypherdsl.expression.*;
 import org.neo4j.cypherdsl.grammar.*;
-import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.CompiledQuery;
 import org.neo4j.cypherdsl.query.ExpressionCollection;
 import org.neo4j.cypherdsl.query.Expressions;
 import org.neo4j.cypherdsl.query.Extract;
 import org.neo4j.cypherdsl.query.Filter;
 import org.neo4j.cypherdsl.query.FunctionExpression;
+import org.neo4j.cypherdsl.query.InCollection;
 import org.neo4j.cypherdsl.query.IterablePredicateExpression;
 import org.neo4j.cypherdsl.query.LabelValue;
 import org.neo4j.cypherdsl.query.NamedPath;
 import org.neo4j.cypherdsl.query.Operator;
 import org.neo4j.cypherdsl.query.OrderByExpression;
+import org.neo4j.cypherdsl.query.PredicateSimplifier;
 import org.neo4j.cypherdsl.query.PropertyValue;
 import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 import org.neo4j.cypherdsl.query.SuffixFunctionExpression;
 import org.neo4j.cypherdsl.query.Value;
 import org.neo4j.cypherdsl.query.clause.*;
@@ -107,7 +113,22 @@ public class CypherQuery
     }
 
     /**
-     * Continue building on existing Query object
+     * Start building a new Cypher query, starting with an UNWIND clause
+     *
+     * @param expression the collection to unwind, typically a parameter
+     * @param identifier
+     * @return
+     */
+    public static UnwindNext unwind( Expression expression, Identifier identifier )
+    {
+        CypherQuery query = new CypherQuery();
+        return query.unwinds( expression, identifier );
+    }
+
+    /**
+     * Continue building on existing Query object. The given query is not modified, so a
+     * base query can be shared and continued from several threads. This takes constant time,
+     * as the continued query shares its existing clauses with the given one.
      *
      * @param query a previously created query object
      * @return CypherQuery DSL that can be used to continue building the query
@@ -257,7 +278,7 @@ public class CypherQuery
     public static Identifier identifier( String name )
     {
         checkEmpty( name, "Identifier" );
-        return new Identifier( name );
+        return Identifier.intern( name );
     }
 
     /**
@@ -398,6 +419,20 @@ public class CypherQuery
         return new Or( expressions );
     }
 
+    /**
+     * Simplify a predicate built from and/or calls. Nested and/or nodes are flattened,
+     * duplicate terms are removed, and literal true and false terms are folded.
+     * <p/>
+     * Example: (a and b) and (true and a) becomes a and b.
+     *
+     * @param expression
+     * @return
+     */
+    public static BooleanExpression simplify( BooleanExpression expression )
+    {
+        return PredicateSimplifier.simplify( expression );
+    }
+
     /**
      * Invert the boolean value of a predicate.
      * <p/>
@@ -539,6 +574,18 @@ public class CypherQuery
         return new Grammar();
     }
 
+    /**
+     * UNWIND clause. Use this with Java initialization block style.
+     *
+     * @param expression
+     * @param identifier
+     * @return
+     */
+    protected UnwindNext unwinds( Expression expression, Identifier identifier )
+    {
+        return new Grammar().unwind( expression, identifier );
+    }
+
     protected <T> T continueQuery( Class<T> asClause )
             throws ClassCastException
     {
@@ -1062,14 +1109,7 @@ public class CypherQuery
      */
     public static NumericExpression count()
     {
-        return new Value( new FunctionExpression( "count", new AbstractExpression()
-        {
-            @Override
-            public void asString( StringBuilder builder )
-            {
-                builder.append( '*' );
-            }
-        } ) );
+        return new Value( new FunctionExpression( "count", new All() ) );
     }
 
     /**
@@ -1836,7 +1876,7 @@ public class CypherQuery
     protected class Grammar
             implements StartNext, With, WithNext, Create, Set, Delete, Remove, CreateUnique, Merge, UpdateNext, Match, ReturnNext,
             OrderBy,
-            Skip, Limit, Execute, Union, UnionNext
+            Skip, Limit, Execute, Union, UnionNext, UnwindNext
     {
         // With ---------------------------------------------------------
         public WithNext with( Expression... withExpressions )
@@ -1854,6 +1894,17 @@ public class CypherQuery
             return this;
         }
 
+        // Unwind -------------------------------------------------------
+        @Override
+        public UnwindNext unwind( Expression expression, Identifier identifier )
+        {
+            checkNull( expression, "Expression" );
+            checkNull( identifier, "Identifier" );
+            query.add( new UnwindClause( expression, identifier ) );
+
+            return this;
+        }
+
         // Union ---------------------------------------------------------
         @Override
         public UnionNext union()
@@ -1868,7 +1919,7 @@ public class CypherQuery
         {
             UnionClause unionClause = query.lastClause(UnionClause.class);
             if (unionClause != null) {
-                unionClause.all();
+                query.replaceLastClause( unionClause.asAll() );
             }
 
             return this;
@@ -2087,7 +2138,7 @@ public class CypherQuery
         public Match optional() {
             MatchClause matchClause = query.lastClause(MatchClause.class);
             if (matchClause != null) {
-                matchClause.optional();
+                query.replaceLastClause( matchClause.asOptional() );
             }
             return this;
         }
@@ -2176,9 +2227,22 @@ public class CypherQuery
 
         // Execute ------------------------------------------------------
         @Override
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            query.asString( appendable );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            query.accept( visitor );
+        }
+
+        @Override
+        public int estimatedLength()
         {
-            query.asString( builder );
+            return query.estimatedLength();
         }
 
         @Override
@@ -2199,6 +2263,18 @@ public class CypherQuery
             return new ExecuteWithParams( query ).parameters( parameters );
         }
 
+        @Override
+        public ExecuteWithParameters parameterize()
+        {
+            return CompiledQuery.parameterize( query, Collections.<String, Object>emptyMap() );
+        }
+
+        @Override
+        public CompiledQuery compile()
+        {
+            return new CompiledQuery( query );
+        }
+
         @Override
         public String toString()
         {
@@ -2210,11 +2286,14 @@ public class CypherQuery
             implements ExecuteWithParameters
     {
         private final Query query;
+        private final Map<String, Object> bound;
         private final Map<String, Object> parameters = new HashMap<String, Object>();
 
         public ExecuteWithParams( Query query )
         {
             this.query = query;
+            this.bound = query.getParameters();
+            this.parameters.putAll( bound );
         }
 
         @Override
@@ -2231,6 +2310,7 @@ public class CypherQuery
         @Override
         public ExecuteWithParameters parameter( String name, Object value )
         {
+            Query.checkNotBound( bound, name, value );
             this.parameters.put( name, value );
             return this;
         }
@@ -2238,14 +2318,43 @@ public class CypherQuery
         @Override
         public ExecuteWithParameters parameters( Map<String, Object> parameters )
         {
+            for ( Map.Entry<String, Object> parameter : parameters.entrySet() )
+            {
+                Query.checkNotBound( bound, parameter.getKey(), parameter.getValue() );
+            }
             this.parameters.putAll( parameters );
             return this;
         }
 
         @Override
-        public void asString( StringBuilder builder )
+        public ExecuteWithParameters parameterize()
+        {
+            return CompiledQuery.parameterize( query, parameters );
+        }
+
+        @Override
+        public CompiledQuery compile()
+        {
+            return new CompiledQuery( query );
+        }
+
+        @Override
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            query.asString( appendable );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
         {
-            query.asString( builder );
+            query.accept( visitor );
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            return query.estimatedLength();
         }
 
         @Override
@@ -2259,68 +2368,155 @@ public class CypherQuery
     public static class And
             extends Value
     {
+        private final transient Map<String, InCollection> boundLists;
+
         public And( BooleanExpression[] value )
         {
-            super( new Expressions( value ) );
+            this( value, new LinkedHashMap<String, InCollection>() );
+        }
+
+        private And( BooleanExpression[] value, Map<String, InCollection> lists )
+        {
+            super( new Expressions( resolveNames( value, lists ) ) );
+            boundLists = lists.isEmpty() ? Collections.<String, InCollection>emptyMap() : lists;
         }
 
         @Override
-        public void asString( StringBuilder builder )
+        protected Map<String, InCollection> boundLists()
         {
-            Expressions expressions = (Expressions) value;
+            return boundLists;
+        }
 
-            for ( int i = 0; i < expressions.expressions.length; i++ )
+        @Override
+        protected Expression leftOperand()
+        {
+            return firstTerm( this );
+        }
+
+        @Override
+        protected void appendBeforeLeft( Appendable appendable )
+                throws IOException
+        {
+            if ( parenthesize( firstTerm( this ), true ) )
             {
-                Expression expression = expressions.expressions[i];
-                if ( i > 0 )
-                {
-                    builder.append( " and " );
-                }
-                if ( expression instanceof And || expression instanceof Or )
-                {
-                    builder.append( '(' );
-                    expression.asString( builder );
-                    builder.append( ')' );
-                }
-                else
-                {
-                    expression.asString( builder );
-                }
+                appendable.append( '(' );
             }
         }
+
+        @Override
+        protected void appendAfterLeft( Appendable appendable )
+                throws IOException
+        {
+            appendRest( appendable, this, " and ", true );
+        }
+
+        @Override
+        protected int estimatedLengthAroundLeft()
+        {
+            return estimateRest( this, 5, true );
+        }
     }
 
     public static class Or
             extends Value
     {
+        private final transient Map<String, InCollection> boundLists;
+
         public Or( BooleanExpression[] value )
         {
-            super( new Expressions( value ) );
+            this( value, new LinkedHashMap<String, InCollection>() );
+        }
+
+        private Or( BooleanExpression[] value, Map<String, InCollection> lists )
+        {
+            super( new Expressions( resolveNames( value, lists ) ) );
+            boundLists = lists.isEmpty() ? Collections.<String, InCollection>emptyMap() : lists;
         }
 
         @Override
-        public void asString( StringBuilder builder )
+        protected Map<String, InCollection> boundLists()
         {
-            Expressions expressions = (Expressions) value;
+            return boundLists;
+        }
+
+        @Override
+        protected Expression leftOperand()
+        {
+            return firstTerm( this );
+        }
 
-            for ( int i = 0; i < expressions.expressions.length; i++ )
+        @Override
+        protected void appendBeforeLeft( Appendable appendable )
+                throws IOException
+        {
+            if ( parenthesize( firstTerm( this ), false ) )
             {
-                Expression expression = expressions.expressions[i];
-                if ( i > 0 )
-                {
-                    builder.append( " or " );
-                }
-                if ( expression instanceof And )
-                {
-                    builder.append( '(' );
-                    expression.asString( builder );
-                    builder.append( ')' );
-                }
-                else
-                {
-                    expression.asString( builder );
-                }
+                appendable.append( '(' );
             }
         }
+
+        @Override
+        protected void appendAfterLeft( Appendable appendable )
+                throws IOException
+        {
+            appendRest( appendable, this, " or ", false );
+        }
+
+        @Override
+        protected int estimatedLengthAroundLeft()
+        {
+            return estimateRest( this, 4, false );
+        }
+    }
+
+    /**
+     * Chained and()/or() calls nest to the left, e.g. a.or(b).and(c) is And[Or[a,b],c]. Value writes that
+     * spine with a loop around the first term of each node, whatever its kind, so long generated chains do
+     * not recurse once per term. Nested and terms are always parenthesized, nested or terms only inside an and.
+     */
+    private static boolean parenthesize( Expression term, boolean parenthesizeOr )
+    {
+        return term instanceof And || ( parenthesizeOr && term instanceof Or );
+    }
+
+    private static void appendRest( Appendable appendable, Value node, String separator, boolean parenthesizeOr )
+            throws IOException
+    {
+        Expression[] terms = ( (Expressions) node.value ).expressions;
+        if ( parenthesize( terms[0], parenthesizeOr ) )
+        {
+            appendable.append( ')' );
+        }
+        for ( int i = 1; i < terms.length; i++ )
+        {
+            appendable.append( separator );
+            if ( parenthesize( terms[i], parenthesizeOr ) )
+            {
+                appendable.append( '(' );
+                terms[i].asString( appendable );
+                appendable.append( ')' );
+            }
+            else
+            {
+                terms[i].asString( appendable );
+            }
+        }
+    }
+
+    private static int estimateRest( Value node, int separatorLength, boolean parenthesizeOr )
+    {
+        Expression[] terms = ( (Expressions) node.value ).expressions;
+        int length = parenthesize( terms[0], parenthesizeOr ) ? 2 : 0;
+        for ( int i = 1; i < terms.length; i++ )
+        {
+            length += separatorLength + terms[i].estimatedLength() + ( parenthesize( terms[i], parenthesizeOr ) ? 2 : 0 );
+        }
+        return length;
+    }
+
+    private static Expression firstTerm( Value node )
+    {
+        Expression[] terms = ( (Expressions) node.value ).expressions;
+        return terms.length > 0 ? terms[0] : null;
     }
 }
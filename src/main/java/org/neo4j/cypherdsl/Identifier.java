@@ -21,13 +21,16 @@ package org.neo4j.cypherdsl;
 import static org.neo4j.cypherdsl.CypherQuery.identifier;
 import static org.neo4j.cypherdsl.query.Query.checkNull;
 
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.neo4j.cypherdsl.expression.NumericExpression;
 import org.neo4j.cypherdsl.expression.ReferenceExpression;
 import org.neo4j.cypherdsl.expression.StringExpression;
 import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 import org.neo4j.cypherdsl.query.Value;
 
 /**
@@ -38,7 +41,65 @@ public class Identifier
         extends Value
         implements ReferenceExpression
 {
-    private static final Pattern simpleName = Pattern.compile( "\\p{Alpha}\\w*" );
+    /**
+     * Upper bound on the number of interned identifiers. Once reached, new names
+     * are no longer pooled so that generated names cannot grow the pool without limit.
+     */
+    private static final int MAX_INTERNED = 1024;
+
+    private static final ConcurrentMap<String, Identifier> interned = new ConcurrentHashMap<String, Identifier>();
+
+    /**
+     * Return a shared instance for the given name. Identifiers are immutable,
+     * so commonly used names such as "n" or "r" can be reused across queries.
+     */
+    static Identifier intern( String name )
+    {
+        Identifier identifier = interned.get( name );
+        if ( identifier == null )
+        {
+            identifier = new Identifier( name );
+            if ( interned.size() < MAX_INTERNED )
+            {
+                Identifier existing = interned.putIfAbsent( name, identifier );
+                if ( existing != null )
+                {
+                    identifier = existing;
+                }
+            }
+        }
+        return identifier;
+    }
+
+    /**
+     * Same as the pattern \p{Alpha}\w*, without the cost of a regex matcher.
+     */
+    static boolean isSimpleName( String name )
+    {
+        if ( name.isEmpty() || !isAsciiLetter( name.charAt( 0 ) ) )
+        {
+            return false;
+        }
+        for ( int i = 1; i < name.length(); i++ )
+        {
+            char ch = name.charAt( i );
+            if ( !isAsciiLetter( ch ) && !( ch >= '0' && ch <= '9' ) && ch != '_' )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter( char ch )
+    {
+        return ( ch >= 'a' && ch <= 'z' ) || ( ch >= 'A' && ch <= 'Z' );
+    }
+
+    private static String quote( String name )
+    {
+        return isSimpleName( name ) ? name : '`' + name + '`';
+    }
 
     Identifier( String name )
     {
@@ -226,15 +287,20 @@ public class Identifier
         return new Property( this, name);
     }
 
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        visitor.visit( this );
+    }
+
     private static class IdentifierExpression
             extends AbstractExpression
     {
-        private final String name;
-        private String prefix;
+        private final String rendered;
 
         private IdentifierExpression( String name )
         {
-            this.name = name;
+            this.rendered = quote( name );
         }
 
         private IdentifierExpression( Iterable<String> names, String prefix )
@@ -247,31 +313,35 @@ public class Identifier
                 {
                     nameBuilder.append( prefix );
                 }
-
-                if ( simpleName.matcher( name ).matches() )
-                {
-                    nameBuilder.append( name );
-                }
-                else
-                {
-                    nameBuilder.append( '`' ).append( name ).append( '`' );
-                }
+                nameBuilder.append( quote( name ) );
                 first = false;
             }
-            this.prefix = prefix;
-            this.name = nameBuilder.toString();
+            this.rendered = nameBuilder.toString();
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
         {
-            if ( prefix != null || simpleName.matcher( name ).matches() )
-            {
-                builder.append( name );
-            }
-            else
-            {
-                builder.append( '`' ).append( name ).append( '`' );
-            }
+            appendable.append( rendered );
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            return rendered.length();
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            IdentifierExpression that = (IdentifierExpression) other;
+            return rendered.equals( that.rendered );
+        }
+
+        @Override
+        protected int computeHashCode()
+        {
+            return rendered.hashCode();
         }
     }
 }
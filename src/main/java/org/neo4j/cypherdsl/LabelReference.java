@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.expression.RemoveExpression;
 import org.neo4j.cypherdsl.expression.SetExpression;
 import org.neo4j.cypherdsl.query.Operator;
@@ -41,8 +43,9 @@ public class LabelReference
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        super.asString(builder);
+        super.asString(appendable);
     }
 }
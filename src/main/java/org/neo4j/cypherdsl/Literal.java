@@ -18,7 +18,11 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.ParameterizingAppendable;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 import org.neo4j.cypherdsl.query.Value;
 
 /**
@@ -32,6 +36,22 @@ public class Literal
         super( new LiteralExpression( value ) );
     }
 
+    /**
+     * Get the Java value of this literal.
+     *
+     * @return
+     */
+    public Object getValue()
+    {
+        return ( (LiteralExpression) value ).value;
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        visitor.visit( this );
+    }
+
     private static class LiteralExpression
             extends AbstractExpression
     {
@@ -43,23 +63,51 @@ public class Literal
         }
 
         @Override
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
         {
-            if ( value instanceof String )
+            if ( appendable instanceof ParameterizingAppendable && ParameterizingAppendable.isBindable( value ) )
+            {
+                ( (ParameterizingAppendable) appendable ).appendParameter( value );
+            }
+            else if ( value instanceof String )
             {
-                builder.append( "\"" ).append( value.toString().replace( "\\", "\\\\" ).replace( "\"",
+                appendable.append( "\"" ).append( value.toString().replace( "\\", "\\\\" ).replace( "\"",
                         "\\\"" ) ).append( "\"" );
             }
             else
             {
-                builder.append( value.toString() );
+                appendable.append( value.toString() );
             }
         }
 
+        @Override
+        public int estimatedLength()
+        {
+            if ( value instanceof String )
+            {
+                return ( (String) value ).length() + 2;
+            }
+            return 8;
+        }
+
         @Override
         public String toString()
         {
             return value.toString();
         }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            LiteralExpression that = (LiteralExpression) other;
+            return value.equals( that.value );
+        }
+
+        @Override
+        protected int computeHashCode()
+        {
+            return value.hashCode();
+        }
     }
 }
@@ -18,7 +18,10 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 import org.neo4j.cypherdsl.query.Value;
 
 /**
@@ -32,6 +35,20 @@ public class Parameter
         super( new ParameterExpression( name ) );
     }
 
+    /**
+     * @return the name of the parameter, without braces
+     */
+    public String getName()
+    {
+        return ( (ParameterExpression) value ).name;
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        visitor.visit( this );
+    }
+
     private static class ParameterExpression
             extends AbstractExpression
     {
@@ -43,9 +60,29 @@ public class Parameter
         }
 
         @Override
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            appendable.append( '{' ).append( name ).append( '}' );
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            return name.length() + 2;
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            ParameterExpression that = (ParameterExpression) other;
+            return name.equals( that.name );
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            builder.append( '{' ).append( name ).append( '}' );
+            return name.hashCode();
         }
     }
 }
@@ -25,9 +25,11 @@ import static org.neo4j.cypherdsl.query.Direction.BOTH;
 import static org.neo4j.cypherdsl.query.Direction.IN;
 import static org.neo4j.cypherdsl.query.Direction.OUT;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.neo4j.cypherdsl.expression.Expression;
 import org.neo4j.cypherdsl.expression.PathExpression;
@@ -36,6 +38,7 @@ import org.neo4j.cypherdsl.query.LabelValue;
 import org.neo4j.cypherdsl.query.LabelValues;
 import org.neo4j.cypherdsl.query.PropertyValue;
 import org.neo4j.cypherdsl.query.PropertyValues;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * Represents either a single node or a path from one node to another.
@@ -333,38 +336,88 @@ public class Path
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         if ( relationship != null )
         {
-            relationship.asString( builder );
+            relationship.asString( appendable );
         }
 
-        builder.append( '(' );
+        appendable.append( '(' );
         if ( node != null )
         {
-            node.asString( builder );
+            node.asString( appendable );
             if ( nodeLabels != null )
             {
-                nodeLabels.asString( builder );
+                nodeLabels.asString( appendable );
             }
             if ( nodePropertyValues != null )
             {
-                builder.append( ' ' );
-                nodePropertyValues.asString( builder );
+                appendable.append( ' ' );
+                nodePropertyValues.asString( appendable );
             }
         }
         else
         {
             if ( nodeLabels != null )
             {
-                nodeLabels.asString( builder );
+                nodeLabels.asString( appendable );
             }
             if ( nodePropertyValues != null )
             {
-                nodePropertyValues.asString( builder );
+                nodePropertyValues.asString( appendable );
             }
         }
-        builder.append( ')' );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            if ( relationship != null )
+            {
+                relationship.accept( visitor );
+            }
+            if ( node != null )
+            {
+                node.accept( visitor );
+            }
+            if ( nodeLabels != null )
+            {
+                nodeLabels.accept( visitor );
+            }
+            if ( nodePropertyValues != null )
+            {
+                nodePropertyValues.accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return ( relationship != null ? relationship.estimatedLength() : 0 )
+                + 2
+                + ( node != null ? node.estimatedLength() : 0 )
+                + ( nodeLabels != null ? nodeLabels.estimatedLength() : 0 )
+                + ( nodePropertyValues != null ? nodePropertyValues.estimatedLength() + 1 : 0 );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        Path that = (Path) other;
+        return Objects.equals( node, that.node ) && Objects.equals( relationship, that.relationship ) &&
+                Objects.equals( nodePropertyValues, that.nodePropertyValues ) &&
+                Objects.equals( nodeLabels, that.nodeLabels );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( node, relationship, nodePropertyValues, nodeLabels );
     }
 }
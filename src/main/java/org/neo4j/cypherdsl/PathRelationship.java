@@ -21,19 +21,23 @@ package org.neo4j.cypherdsl;
 import static java.util.Arrays.asList;
 import static org.neo4j.cypherdsl.CypherQuery.identifier;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.util.Objects;
 
+import org.neo4j.cypherdsl.query.AbstractQueryPart;
 import org.neo4j.cypherdsl.expression.Expression;
 import org.neo4j.cypherdsl.query.Direction;
 import org.neo4j.cypherdsl.query.PropertyValue;
 import org.neo4j.cypherdsl.query.PropertyValues;
 import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * Represents a relationship in a path.
  */
 public class PathRelationship
-        implements AsString, Serializable, Cloneable
+        extends AbstractQueryPart
+        implements AsString, Cloneable
 {
     public final Path leftNode;
     public final Direction direction; // null indicates that the path is only a start-node
@@ -210,55 +214,116 @@ public class PathRelationship
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        leftNode.asString( builder );
+        leftNode.asString( appendable );
 
-        builder.append( direction.equals( Direction.IN ) ? "<-" : "-" );
+        appendable.append( direction.equals( Direction.IN ) ? "<-" : "-" );
 
         boolean hasRelationships = relationships.iterator().hasNext();
         if ( as != null || hasRelationships || minHops != null || maxHops != null || relationshipPropertyValues!= null )
         {
-            builder.append( '[' );
+            appendable.append( '[' );
             if ( as != null )
             {
-                as.asString(builder);
+                as.asString(appendable);
             }
             if ( hasRelationships )
             {
-                builder.append( ':' );
+                appendable.append( ':' );
                 String or = "";
                 for ( Identifier relationship : relationships )
                 {
-                    builder.append( or );
-                    relationship.asString( builder );
+                    appendable.append( or );
+                    relationship.asString( appendable );
                     or = "|";
                 }
             }
 
             if ( minHops != null || maxHops != null )
             {
-                builder.append( '*' );
+                appendable.append( '*' );
                 if ( minHops != null )
                 {
-                    builder.append( minHops );
+                    appendable.append( minHops.toString() );
                 }
-                builder.append( ".." );
+                appendable.append( ".." );
                 if ( maxHops != null )
                 {
-                    builder.append( maxHops );
+                    appendable.append( maxHops.toString() );
                 }
             }
 
             if ( relationshipPropertyValues != null )
             {
-                builder.append( ' ' );
-                relationshipPropertyValues.asString( builder );
+                appendable.append( ' ' );
+                relationshipPropertyValues.asString( appendable );
             }
 
-            builder.append( ']' );
+            appendable.append( ']' );
         }
 
-        builder.append( direction.equals( Direction.OUT ) ? "->" : "-" );
+        appendable.append( direction.equals( Direction.OUT ) ? "->" : "-" );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            leftNode.accept( visitor );
+            if ( as != null )
+            {
+                as.accept( visitor );
+            }
+            for ( Identifier relationship : relationships )
+            {
+                relationship.accept( visitor );
+            }
+            if ( relationshipPropertyValues != null )
+            {
+                relationshipPropertyValues.accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        int length = leftNode.estimatedLength() + 5;
+        if ( as != null )
+        {
+            length += as.estimatedLength();
+        }
+        for ( Identifier relationship : relationships )
+        {
+            length += relationship.estimatedLength() + 1;
+        }
+        if ( minHops != null || maxHops != null )
+        {
+            length += 5;
+        }
+        if ( relationshipPropertyValues != null )
+        {
+            length += relationshipPropertyValues.estimatedLength() + 1;
+        }
+        return length;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        PathRelationship that = (PathRelationship) other;
+        return leftNode.equals( that.leftNode ) && direction.equals( that.direction ) &&
+                Objects.equals( as, that.as ) && Query.iterableEquals( relationships, that.relationships ) &&
+                Objects.equals( relationshipPropertyValues, that.relationshipPropertyValues ) &&
+                Objects.equals( minHops, that.minHops ) && Objects.equals( maxHops, that.maxHops );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( leftNode, direction, as, Query.iterableHashCode( relationships ), relationshipPropertyValues, minHops, maxHops );
     }
 }
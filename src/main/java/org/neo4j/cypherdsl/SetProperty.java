@@ -18,14 +18,20 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.expression.Expression;
 import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.query.AbstractQueryPart;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * Represents a property being assigned to a value. This is used for the SET clause,
  * as well as the MERGE ON CREATE and ON MATCH clauses.
  */
 public class SetProperty
+        extends AbstractQueryPart
         implements AsString, SetExpression
 {
     private final Property property;
@@ -38,10 +44,40 @@ public class SetProperty
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        property.asString( appendable );
+        appendable.append( '=' );
+        value.asString( appendable );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            property.accept( visitor );
+            value.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return property.estimatedLength() + 1 + value.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        SetProperty that = (SetProperty) other;
+        return property.equals( that.property ) && value.equals( that.value );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        property.asString( builder );
-        builder.append( '=' );
-        value.asString( builder );
+        return Objects.hash( property, value );
     }
 }
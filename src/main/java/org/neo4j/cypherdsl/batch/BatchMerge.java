@@ -0,0 +1,329 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.batch;
+
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.param;
+import static org.neo4j.cypherdsl.CypherQuery.property;
+import static org.neo4j.cypherdsl.CypherQuery.unwind;
+import static org.neo4j.cypherdsl.CypherQuery.value;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.grammar.UpdateNext;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+import org.neo4j.cypherdsl.query.PropertyValue;
+import org.neo4j.cypherdsl.query.Query;
+
+/**
+ * Writes many rows with one statement per batch instead of one statement per node. For a label,
+ * key properties and the properties to set, this generates:
+ * <pre>
+ * UNWIND {batch} AS row MERGE (n:Label {key:row.key}) ON CREATE SET n.a=row.a ON MATCH SET n.b=row.b
+ * </pre>
+ * and splits the rows into batches, each bound to the {batch} parameter. Rows are maps or
+ * objects, whose getters and public fields are read as properties.
+ */
+public class BatchMerge
+{
+    public static final String BATCH_PARAMETER = Batches.BATCH_PARAMETER;
+
+    private static final ClassValue<Property[]> PROPERTIES = new ClassValue<Property[]>()
+    {
+        @Override
+        protected Property[] computeValue( Class<?> type )
+        {
+            return properties( type );
+        }
+    };
+
+    private final String label;
+    private final List<String> keys = new ArrayList<String>();
+    private final List<String> onCreate = new ArrayList<String>();
+    private final List<String> onMatch = new ArrayList<String>();
+    private int rowsPerBatch = 10000;
+    private long bytesPerBatch = 16 * 1024 * 1024;
+
+    private BatchMerge( String label )
+    {
+        this.label = label;
+    }
+
+    /**
+     * Start a batch merge of nodes with the given label.
+     *
+     * @param label
+     * @return
+     */
+    public static BatchMerge label( String label )
+    {
+        Query.checkEmpty( label, "Label" );
+        return new BatchMerge( label );
+    }
+
+    /**
+     * The properties that identify a node. These are matched by the MERGE and must be present in every row.
+     *
+     * @param properties
+     * @return
+     */
+    public BatchMerge key( String... properties )
+    {
+        Query.checkNull( properties, "Key" );
+        keys.addAll( Arrays.asList( properties ) );
+        return this;
+    }
+
+    /**
+     * Properties that are set when a node is created.
+     *
+     * @param properties
+     * @return
+     */
+    public BatchMerge onCreate( String... properties )
+    {
+        Query.checkNull( properties, "Property" );
+        onCreate.addAll( Arrays.asList( properties ) );
+        return this;
+    }
+
+    /**
+     * Properties that are set when a node already exists.
+     *
+     * @param properties
+     * @return
+     */
+    public BatchMerge onMatch( String... properties )
+    {
+        Query.checkNull( properties, "Property" );
+        onMatch.addAll( Arrays.asList( properties ) );
+        return this;
+    }
+
+    /**
+     * Maximum number of rows per batch, 10000 by default.
+     *
+     * @param rows
+     * @return
+     */
+    public BatchMerge rowsPerBatch( int rows )
+    {
+        this.rowsPerBatch = Batches.checkRowsPerBatch( rows );
+        return this;
+    }
+
+    /**
+     * Maximum estimated size of the rows in a batch, 16 MB by default. A row that is larger on
+     * its own still gets a batch of its own.
+     *
+     * @param bytes
+     * @return
+     */
+    public BatchMerge bytesPerBatch( long bytes )
+    {
+        this.bytesPerBatch = Batches.checkBytesPerBatch( bytes );
+        return this;
+    }
+
+    /**
+     * The statement that is executed for every batch, with the rows bound to {batch}.
+     *
+     * @return
+     */
+    public CompiledQuery statement()
+    {
+        if ( keys.isEmpty() )
+        {
+            throw new IllegalStateException( "Batch merge needs at least one key property" );
+        }
+
+        Identifier n = identifier( "n" );
+        Identifier row = identifier( "row" );
+        List<PropertyValue> values = new ArrayList<PropertyValue>( keys.size() );
+        for ( String key : keys )
+        {
+            values.add( value( identifier( key ), row.property( key ) ) );
+        }
+
+        UpdateNext merge = unwind( param( BATCH_PARAMETER ), row ).merge( node( n ).label( label ).values( values ) );
+        if ( !onCreate.isEmpty() )
+        {
+            merge = merge.onCreate( setters( n, row, onCreate ) );
+        }
+        if ( !onMatch.isEmpty() )
+        {
+            merge = merge.onMatch( setters( n, row, onMatch ) );
+        }
+        return merge.compile();
+    }
+
+    private static List<SetExpression> setters( Identifier n, Identifier row, List<String> properties )
+    {
+        List<SetExpression> setters = new ArrayList<SetExpression>( properties.size() );
+        for ( String name : properties )
+        {
+            setters.add( property( n.property( name ), row.property( name ) ) );
+        }
+        return setters;
+    }
+
+    /**
+     * Split the rows into batches. Every batch is the same statement with its rows bound to {batch},
+     * so the server only plans it once. Batches are filled while they are iterated, so rows are only
+     * read, and checked for their keys, one batch at a time.
+     *
+     * @param rows maps or JavaBeans
+     * @return the batches, in order
+     */
+    public Iterable<ExecuteWithParameters> batches( final Collection<?> rows )
+    {
+        Query.checkNull( rows, "Rows" );
+        final CompiledQuery statement = statement();
+        final List<String> keys = new ArrayList<String>( this.keys );
+        final int rowsPerBatch = this.rowsPerBatch;
+        final long bytesPerBatch = this.bytesPerBatch;
+
+        return new Iterable<ExecuteWithParameters>()
+        {
+            @Override
+            public Iterator<ExecuteWithParameters> iterator()
+            {
+                final Iterator<?> source = rows.iterator();
+                return new Batches( statement, rowsPerBatch, bytesPerBatch )
+                {
+                    private int index;
+
+                    @Override
+                    protected boolean hasNextRow()
+                    {
+                        return source.hasNext();
+                    }
+
+                    @Override
+                    protected Map<String, Object> nextRow()
+                    {
+                        Map<String, Object> values = toMap( source.next() );
+                        for ( String key : keys )
+                        {
+                            if ( values.get( key ) == null )
+                            {
+                                throw new IllegalArgumentException( "Row " + index + " has no value for key " + key );
+                            }
+                        }
+                        index++;
+                        return values;
+                    }
+                };
+            }
+        };
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Map<String, Object> toMap( Object row )
+    {
+        Query.checkNull( row, "Row" );
+        if ( row instanceof Map )
+        {
+            return (Map<String, Object>) row;
+        }
+
+        Property[] properties = PROPERTIES.get( row.getClass() );
+        Map<String, Object> values = new LinkedHashMap<String, Object>( properties.length * 2 );
+        for ( Property property : properties )
+        {
+            try
+            {
+                values.put( property.name, property.getter.invokeExact( row ) );
+            }
+            catch ( Throwable e )
+            {
+                throw new IllegalArgumentException( "Could not read property " + property.name + " of " +
+                        row.getClass().getName(), e );
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resolve the getters and public fields of a class once. A getter takes precedence over a field
+     * with the same name.
+     */
+    private static Property[] properties( Class<?> type )
+    {
+        Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try
+        {
+            for ( PropertyDescriptor descriptor : Introspector.getBeanInfo( type, Object.class ).getPropertyDescriptors() )
+            {
+                Method getter = descriptor.getReadMethod();
+                if ( getter != null )
+                {
+                    // Public getters of a class that is not public still need this to be called
+                    getter.setAccessible( true );
+                    properties.put( descriptor.getName(), new Property( descriptor.getName(), lookup.unreflect( getter ) ) );
+                }
+            }
+            for ( Field field : type.getFields() )
+            {
+                if ( !Modifier.isStatic( field.getModifiers() ) && !properties.containsKey( field.getName() ) )
+                {
+                    field.setAccessible( true );
+                    properties.put( field.getName(), new Property( field.getName(), lookup.unreflectGetter( field ) ) );
+                }
+            }
+        }
+        catch ( IntrospectionException | IllegalAccessException e )
+        {
+            throw new IllegalArgumentException( "Could not read properties of " + type.getName(), e );
+        }
+        return properties.values().toArray( new Property[properties.size()] );
+    }
+
+    private static final class Property
+    {
+        private final String name;
+        private final MethodHandle getter;
+
+        private Property( String name, MethodHandle getter )
+        {
+            this.name = name;
+            this.getter = getter.asType( MethodType.methodType( Object.class, Object.class ) );
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.batch;
+
+import static org.neo4j.cypherdsl.CypherQuery.id;
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.param;
+import static org.neo4j.cypherdsl.CypherQuery.property;
+import static org.neo4j.cypherdsl.CypherQuery.unwind;
+import static org.neo4j.cypherdsl.CypherQuery.value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.Path;
+import org.neo4j.cypherdsl.PathRelationship;
+import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.expression.Expression;
+import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.grammar.Match;
+import org.neo4j.cypherdsl.grammar.Update;
+import org.neo4j.cypherdsl.grammar.UpdateNext;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+import org.neo4j.cypherdsl.query.PropertyValue;
+import org.neo4j.cypherdsl.query.Query;
+
+/**
+ * Creates many relationships with one statement per batch instead of one statement per relationship.
+ * Both endpoints are looked up by a label and key property, or by node id if no key is given:
+ * <pre>
+ * UNWIND {batch} AS row MATCH (a:Person {id:row.source}),(b:Company {id:row.target})
+ * CREATE (a)-[r:WORKS_AT {since:row.since}]->(b)
+ * </pre>
+ * With merge() the relationship is merged instead, and its properties are SET afterwards.
+ */
+public class BatchRelationships
+{
+    /**
+     * Name of the row entries holding the source and target keys, which can not be used as property names.
+     */
+    public static final String SOURCE = "source";
+    public static final String TARGET = "target";
+
+    private final String type;
+    private String sourceLabel;
+    private String sourceKey;
+    private String targetLabel;
+    private String targetKey;
+    private final List<String> properties = new ArrayList<String>();
+    private boolean merge;
+    private int rowsPerBatch = 10000;
+    private long bytesPerBatch = 16 * 1024 * 1024;
+
+    private BatchRelationships( String type )
+    {
+        this.type = type;
+    }
+
+    /**
+     * Start a batch of relationships of the given type.
+     *
+     * @param type
+     * @return
+     */
+    public static BatchRelationships type( String type )
+    {
+        Query.checkEmpty( type, "Type" );
+        return new BatchRelationships( type );
+    }
+
+    /**
+     * Look up source nodes by label and key property, which should be indexed.
+     * By default they are looked up by node id.
+     *
+     * @param label
+     * @param key
+     * @return
+     */
+    public BatchRelationships from( String label, String key )
+    {
+        Query.checkEmpty( label, "Label" );
+        Query.checkEmpty( key, "Key" );
+        this.sourceLabel = label;
+        this.sourceKey = key;
+        return this;
+    }
+
+    /**
+     * Look up target nodes by label and key property, which should be indexed.
+     * By default they are looked up by node id.
+     *
+     * @param label
+     * @param key
+     * @return
+     */
+    public BatchRelationships to( String label, String key )
+    {
+        Query.checkEmpty( label, "Label" );
+        Query.checkEmpty( key, "Key" );
+        this.targetLabel = label;
+        this.targetKey = key;
+        return this;
+    }
+
+    /**
+     * Properties that are set on the relationships.
+     *
+     * @param properties
+     * @return
+     */
+    public BatchRelationships properties( String... properties )
+    {
+        Query.checkNull( properties, "Property" );
+        for ( String property : properties )
+        {
+            if ( property.equals( SOURCE ) || property.equals( TARGET ) )
+            {
+                throw new IllegalArgumentException( "Property name " + property + " is used for the endpoints" );
+            }
+        }
+        this.properties.addAll( Arrays.asList( properties ) );
+        return this;
+    }
+
+    /**
+     * MERGE the relationships instead of creating them, so that existing ones are updated.
+     *
+     * @return
+     */
+    public BatchRelationships merge()
+    {
+        this.merge = true;
+        return this;
+    }
+
+    /**
+     * Maximum number of relationships per batch, 10000 by default.
+     *
+     * @param rows
+     * @return
+     */
+    public BatchRelationships rowsPerBatch( int rows )
+    {
+        this.rowsPerBatch = Batches.checkRowsPerBatch( rows );
+        return this;
+    }
+
+    /**
+     * Maximum estimated size of the rows in a batch, 16 MB by default.
+     *
+     * @param bytes
+     * @return
+     */
+    public BatchRelationships bytesPerBatch( long bytes )
+    {
+        this.bytesPerBatch = Batches.checkBytesPerBatch( bytes );
+        return this;
+    }
+
+    /**
+     * The statement that is executed for every batch, with the rows bound to {batch}.
+     *
+     * @return
+     */
+    public CompiledQuery statement()
+    {
+        Identifier a = identifier( "a" );
+        Identifier b = identifier( "b" );
+        Identifier r = identifier( "r" );
+        Identifier row = identifier( "row" );
+
+        Match match = unwind( param( Batches.BATCH_PARAMETER ), row ).
+                match( endpoint( a, sourceLabel, sourceKey, row.property( SOURCE ) ),
+                        endpoint( b, targetLabel, targetKey, row.property( TARGET ) ) );
+        BooleanExpression byId = null;
+        if ( sourceKey == null )
+        {
+            byId = id( a ).eq( row.property( SOURCE ) );
+        }
+        if ( targetKey == null )
+        {
+            BooleanExpression targetById = id( b ).eq( row.property( TARGET ) );
+            byId = byId == null ? targetById : byId.and( targetById );
+        }
+        Update update = byId == null ? match : match.where( byId );
+
+        UpdateNext next;
+        if ( merge )
+        {
+            next = update.merge( node( a ).out( type ).as( r ).node( b ) );
+            if ( !properties.isEmpty() )
+            {
+                List<SetExpression> setters = new ArrayList<SetExpression>( properties.size() );
+                for ( String name : properties )
+                {
+                    setters.add( property( r.property( name ), row.property( name ) ) );
+                }
+                next = next.set( setters );
+            }
+        }
+        else
+        {
+            PathRelationship relationship = node( a ).out( type );
+            if ( !properties.isEmpty() )
+            {
+                List<PropertyValue> values = new ArrayList<PropertyValue>( properties.size() );
+                for ( String name : properties )
+                {
+                    values.add( value( identifier( name ), row.property( name ) ) );
+                }
+                relationship = relationship.values( values );
+            }
+            next = update.create( relationship.as( r ).node( b ) );
+        }
+        return next.compile();
+    }
+
+    private static Path endpoint( Identifier node, String label, String key, Expression keyValue )
+    {
+        Path path = node( node );
+        return key == null ? path : path.label( label ).values( value( identifier( key ), keyValue ) );
+    }
+
+    /**
+     * Split relationships between nodes with the given ids or keys into batches. This can only be used if no
+     * properties are configured, as they would otherwise be set to null.
+     *
+     * @param sources
+     * @param targets
+     * @return the batches, in order
+     * @throws IllegalStateException if properties are configured
+     */
+    public Iterable<ExecuteWithParameters> batches( final long[] sources, final long[] targets )
+    {
+        Query.checkNull( sources, "Sources" );
+        Query.checkNull( targets, "Targets" );
+        checkLengths( sources.length, targets.length, null );
+        checkProperties( null );
+
+        return batches( sources.length, new Row()
+        {
+            @Override
+            public Map<String, Object> get( int i )
+            {
+                return row( sources[i], targets[i], null, null );
+            }
+        } );
+    }
+
+    /**
+     * Split relationships between nodes with the given ids or keys into batches.
+     *
+     * @param sources
+     * @param targets
+     * @param properties the properties of each relationship, or null if no properties are configured
+     * @return the batches, in order
+     * @throws IllegalStateException if properties are configured but not given
+     */
+    public Iterable<ExecuteWithParameters> batches( final Object[] sources, final Object[] targets,
+                                                    final List<? extends Map<String, ?>> properties )
+    {
+        Query.checkNull( sources, "Sources" );
+        Query.checkNull( targets, "Targets" );
+        checkLengths( sources.length, targets.length, properties );
+        checkProperties( properties );
+
+        final List<String> names = new ArrayList<String>( this.properties );
+        return batches( sources.length, new Row()
+        {
+            @Override
+            public Map<String, Object> get( int i )
+            {
+                return row( sources[i], targets[i], names, properties == null ? null : properties.get( i ) );
+            }
+        } );
+    }
+
+    private interface Row
+    {
+        Map<String, Object> get( int i );
+    }
+
+    /**
+     * Build the rows while the batches are iterated, so only the rows of one batch are kept in memory.
+     */
+    private Iterable<ExecuteWithParameters> batches( final int count, final Row rows )
+    {
+        final CompiledQuery statement = statement();
+        final int rowsPerBatch = this.rowsPerBatch;
+        final long bytesPerBatch = this.bytesPerBatch;
+
+        return new Iterable<ExecuteWithParameters>()
+        {
+            @Override
+            public Iterator<ExecuteWithParameters> iterator()
+            {
+                return new Batches( statement, rowsPerBatch, bytesPerBatch )
+                {
+                    private int index;
+
+                    @Override
+                    protected boolean hasNextRow()
+                    {
+                        return index < count;
+                    }
+
+                    @Override
+                    protected Map<String, Object> nextRow()
+                    {
+                        return rows.get( index++ );
+                    }
+                };
+            }
+        };
+    }
+
+    private static void checkLengths( int sources, int targets, List<?> properties )
+    {
+        if ( sources != targets || ( properties != null && properties.size() != sources ) )
+        {
+            throw new IllegalArgumentException( "Sources, targets and properties must have the same length" );
+        }
+    }
+
+    private void checkProperties( List<?> values )
+    {
+        // The statement sets every configured property, so leaving them out would set them all to null
+        if ( values == null && !properties.isEmpty() )
+        {
+            throw new IllegalStateException( "Relationships need values for the properties " + properties );
+        }
+    }
+
+    private static Map<String, Object> row( Object source, Object target, List<String> names, Map<String, ?> values )
+    {
+        Map<String, Object> row = new LinkedHashMap<String, Object>();
+        row.put( SOURCE, source );
+        row.put( TARGET, target );
+        if ( values != null )
+        {
+            for ( String name : names )
+            {
+                row.put( name, values.get( name ) );
+            }
+        }
+        return row;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.batch;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+
+/**
+ * Splits rows into batches that are bound to the {batch} parameter of a statement. Batches are filled
+ * one at a time while they are iterated, so only the rows of the current batch are kept in memory.
+ */
+abstract class Batches
+        implements Iterator<ExecuteWithParameters>
+{
+    static final String BATCH_PARAMETER = "batch";
+
+    private final CompiledQuery statement;
+    private final int rowsPerBatch;
+    private final long bytesPerBatch;
+
+    // A row that did not fit in the previous batch
+    private Map<String, Object> pending;
+    private long pendingBytes;
+
+    Batches( CompiledQuery statement, int rowsPerBatch, long bytesPerBatch )
+    {
+        this.statement = statement;
+        this.rowsPerBatch = rowsPerBatch;
+        this.bytesPerBatch = bytesPerBatch;
+    }
+
+    /**
+     * @return true if there are more rows
+     */
+    protected abstract boolean hasNextRow();
+
+    /**
+     * @return the next row
+     */
+    protected abstract Map<String, Object> nextRow();
+
+    @Override
+    public boolean hasNext()
+    {
+        return pending != null || hasNextRow();
+    }
+
+    @Override
+    public ExecuteWithParameters next()
+    {
+        if ( !hasNext() )
+        {
+            throw new NoSuchElementException();
+        }
+
+        List<Map<String, Object>> batch = new ArrayList<Map<String, Object>>();
+        long bytes = 0;
+        while ( batch.size() < rowsPerBatch && hasNext() )
+        {
+            if ( pending == null )
+            {
+                pending = nextRow();
+                pendingBytes = estimatedBytes( pending );
+            }
+            if ( !batch.isEmpty() && bytes + pendingBytes > bytesPerBatch )
+            {
+                break;
+            }
+            batch.add( pending );
+            bytes += pendingBytes;
+            pending = null;
+        }
+        return statement.parameter( BATCH_PARAMETER, batch );
+    }
+
+    static int checkRowsPerBatch( int rows )
+    {
+        if ( rows < 1 )
+        {
+            throw new IllegalArgumentException( "Rows per batch must be at least 1" );
+        }
+        return rows;
+    }
+
+    static long checkBytesPerBatch( long bytes )
+    {
+        if ( bytes < 1 )
+        {
+            throw new IllegalArgumentException( "Bytes per batch must be at least 1" );
+        }
+        return bytes;
+    }
+
+    /**
+     * Rough size of a row once it is sent to the server, used to keep batches below bytesPerBatch.
+     */
+    private static long estimatedBytes( Map<String, Object> row )
+    {
+        long bytes = 2;
+        for ( Map.Entry<String, Object> entry : row.entrySet() )
+        {
+            bytes += entry.getKey().length() + 4 + estimatedBytes( entry.getValue() );
+        }
+        return bytes;
+    }
+
+    private static long estimatedBytes( Object value )
+    {
+        if ( value == null || value instanceof Boolean )
+        {
+            return 5;
+        }
+        if ( value instanceof CharSequence )
+        {
+            return ( (CharSequence) value ).length() + 2;
+        }
+        if ( value instanceof Number )
+        {
+            return 8;
+        }
+        if ( value.getClass().isArray() )
+        {
+            return 2 + 8L * Array.getLength( value );
+        }
+        if ( value instanceof Collection )
+        {
+            long bytes = 2;
+            for ( Object element : (Collection<?>) value )
+            {
+                bytes += estimatedBytes( element ) + 1;
+            }
+            return bytes;
+        }
+        return value.toString().length() + 2;
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.execution;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.RenderCache;
+
+/**
+ * Runs queries on a fixed number of threads, so that independent queries can overlap without a caller
+ * thread blocking on each of them. At most maxQueued queries wait for a thread. When that many are
+ * waiting, executeAsync() blocks the caller until one is picked up, and tryExecuteAsync() fails instead.
+ * <p/>
+ * Queries are rendered, and their parameters read, on the calling thread, so the query may be changed
+ * or reused as soon as the call returns. With a {@link CypherExecutor} as backend, its render cache is
+ * used and its listeners see the render time. Results are read completely on the worker thread, and
+ * its transaction is closed by the time the future completes, so the rows hold the properties of nodes,
+ * relationships and paths rather than the entities, see {@link CypherExecutor#rows(String, Map)}.
+ */
+public class AsyncCypherExecutor
+        implements AutoCloseable
+{
+    private final QueryBackend backend;
+    private final RenderCache renderCache;
+    private final ThreadPoolExecutor threads;
+    private final Semaphore permits;
+
+    /**
+     * @param backend where queries are run, for example a {@link CypherExecutor}
+     * @param threadCount number of queries that run at the same time
+     * @param maxQueued number of queries that may wait for a thread
+     */
+    public AsyncCypherExecutor( QueryBackend backend, int threadCount, int maxQueued )
+    {
+        Query.checkNull( backend, "Backend" );
+        if ( threadCount < 1 || maxQueued < 1 )
+        {
+            throw new IllegalArgumentException( "Thread count and queue size must be at least 1" );
+        }
+
+        this.backend = backend;
+        this.renderCache = backend instanceof CypherExecutor ?
+                ( (CypherExecutor) backend ).getRenderCache() : new RenderCache( 1024 );
+        // The permits bound the queue, which lets a worker hand its permit on before it has finished
+        this.permits = new Semaphore( threadCount + maxQueued );
+        this.threads = new ThreadPoolExecutor( threadCount, threadCount, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory() );
+    }
+
+    /**
+     * Run the query on a worker thread, waiting for room in the queue if it is full.
+     *
+     * @param query
+     * @return the rows of the result
+     * @throws RejectedExecutionException if the executor has been closed
+     */
+    public CompletableFuture<List<Map<String, Object>>> executeAsync( Execute query )
+    {
+        Query.checkNull( query, "Query" );
+        long start = System.nanoTime();
+        String cypher = CypherExecutor.render( query, renderCache );
+        Map<String, Object> parameters = new HashMap<String, Object>( CypherExecutor.parameters( query ) );
+        long renderNanos = System.nanoTime() - start;
+
+        permits.acquireUninterruptibly();
+        return submit( cypher, parameters, renderNanos );
+    }
+
+    /**
+     * Run the query on a worker thread, or fail right away if the queue is full.
+     *
+     * @param query
+     * @return the rows of the result, or a future failed with RejectedExecutionException
+     */
+    public CompletableFuture<List<Map<String, Object>>> tryExecuteAsync( Execute query )
+    {
+        Query.checkNull( query, "Query" );
+        long start = System.nanoTime();
+        String cypher = CypherExecutor.render( query, renderCache );
+        Map<String, Object> parameters = new HashMap<String, Object>( CypherExecutor.parameters( query ) );
+        long renderNanos = System.nanoTime() - start;
+
+        if ( !permits.tryAcquire() )
+        {
+            CompletableFuture<List<Map<String, Object>>> rejected = new CompletableFuture<List<Map<String, Object>>>();
+            rejected.completeExceptionally( new RejectedExecutionException( "Too many queued queries" ) );
+            return rejected;
+        }
+        return submit( cypher, parameters, renderNanos );
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> submit( final String cypher,
+                                                               final Map<String, Object> parameters,
+                                                               final long renderNanos )
+    {
+        final CompletableFuture<List<Map<String, Object>>> future = new CompletableFuture<List<Map<String, Object>>>();
+        try
+        {
+            threads.execute( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    // Release the permit before completing, so callbacks that submit more queries don't wait on it
+                    List<Map<String, Object>> rows;
+                    try
+                    {
+                        rows = backend instanceof CypherExecutor ?
+                                ( (CypherExecutor) backend ).rows( cypher, parameters, renderNanos ) :
+                                backend.rows( cypher, parameters );
+                    }
+                    catch ( Throwable e )
+                    {
+                        permits.release();
+                        future.completeExceptionally( e );
+                        return;
+                    }
+                    permits.release();
+                    future.complete( rows );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            permits.release();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * @return the number of queries waiting for a thread
+     */
+    public int getQueuedCount()
+    {
+        return threads.getQueue().size();
+    }
+
+    /**
+     * Stop accepting queries and wait for the ones that were already submitted. If the calling thread
+     * is interrupted while waiting, this returns early with the thread's interrupt flag set.
+     */
+    @Override
+    public void close()
+    {
+        threads.shutdown();
+        try
+        {
+            threads.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class DaemonThreadFactory
+            implements ThreadFactory
+    {
+        private static final AtomicInteger pools = new AtomicInteger();
+
+        private final int pool = pools.incrementAndGet();
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread( Runnable runnable )
+        {
+            Thread thread = new Thread( runnable, "cypher-async-" + pool + "-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+    }
+}
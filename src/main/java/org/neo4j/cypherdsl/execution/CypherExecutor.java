@@ -0,0 +1,263 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.RenderCache;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * Runs DSL queries against an embedded database. Queries are rendered through a {@link RenderCache},
+ * so a query that is built the same way many times is only rendered once, and compiled or
+ * parameterized queries are never rendered again. Parameters set on the query, and IN lists it
+ * binds itself, are passed along.
+ * <p/>
+ * The cache compares whole queries, literal values included, so it only pays off for queries whose
+ * varying values are parameters. A query with inline literals that change between executions should
+ * be compiled or parameterized, otherwise every value takes a cache entry of its own.
+ * <p/>
+ * Queries run in their own transaction, unless they are run from {@link #inTransaction(UnitOfWork)}.
+ */
+public class CypherExecutor
+        implements QueryBackend
+{
+    private final GraphDatabaseService database;
+    private final RenderCache renderCache;
+    private final List<ExecutionListener> listeners = new CopyOnWriteArrayList<ExecutionListener>();
+    private final ThreadLocal<Transaction> transaction = new ThreadLocal<Transaction>();
+
+    public CypherExecutor( GraphDatabaseService database )
+    {
+        this( database, 1024 );
+    }
+
+    /**
+     * @param database
+     * @param cacheSize maximum number of rendered queries to keep
+     */
+    public CypherExecutor( GraphDatabaseService database, int cacheSize )
+    {
+        Query.checkNull( database, "Database" );
+        this.database = database;
+        this.renderCache = new RenderCache( cacheSize );
+    }
+
+    public CypherExecutor addListener( ExecutionListener listener )
+    {
+        Query.checkNull( listener, "Listener" );
+        listeners.add( listener );
+        return this;
+    }
+
+    public void removeListener( ExecutionListener listener )
+    {
+        listeners.remove( listener );
+    }
+
+    public RenderCache getRenderCache()
+    {
+        return renderCache;
+    }
+
+    /**
+     * Execute the query with the parameters that were set on it.
+     *
+     * @param query
+     * @return the streaming result, which must be consumed or closed
+     */
+    public Result execute( Execute query )
+    {
+        Query.checkNull( query, "Query" );
+
+        long start = System.nanoTime();
+        String cypher = render( query, renderCache );
+        Map<String, Object> parameters = parameters( query );
+        return execute( cypher, parameters, System.nanoTime() - start );
+    }
+
+    /**
+     * Execute already rendered Cypher and read all of its rows. Nodes and relationships can only be
+     * read while their transaction is open, so the rows hold their properties instead: a map of
+     * properties for a node or relationship, and a list of those for a path. Use
+     * {@link #execute(Execute)} to work with the entities themselves.
+     *
+     * @param cypher
+     * @param parameters
+     * @return
+     */
+    @Override
+    public List<Map<String, Object>> rows( String cypher, Map<String, Object> parameters )
+    {
+        return rows( cypher, parameters, 0 );
+    }
+
+    /**
+     * As {@link #rows(String, Map)}, for a query that took renderNanos to render.
+     */
+    List<Map<String, Object>> rows( String cypher, Map<String, Object> parameters, long renderNanos )
+    {
+        // An updating query commits its own transaction before its rows are read, so read them in one
+        try ( Transaction tx = database.beginTx(); Result result = execute( cypher, parameters, renderNanos ) )
+        {
+            List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+            while ( result.hasNext() )
+            {
+                rows.add( detach( result.next() ) );
+            }
+            tx.success();
+            return rows;
+        }
+    }
+
+    /**
+     * Replace the entities in a row by their properties, while the result is still open.
+     */
+    private static Map<String, Object> detach( Map<String, Object> row )
+    {
+        Map<String, Object> detached = new LinkedHashMap<String, Object>( row.size() * 2 );
+        for ( Map.Entry<String, Object> column : row.entrySet() )
+        {
+            detached.put( column.getKey(), detach( column.getValue() ) );
+        }
+        return detached;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Object detach( Object value )
+    {
+        if ( value instanceof PropertyContainer )
+        {
+            return ( (PropertyContainer) value ).getAllProperties();
+        }
+        if ( value instanceof Path )
+        {
+            List<Object> entities = new ArrayList<Object>( ( (Path) value ).length() * 2 + 1 );
+            for ( PropertyContainer entity : (Path) value )
+            {
+                entities.add( entity.getAllProperties() );
+            }
+            return entities;
+        }
+        if ( value instanceof Map )
+        {
+            return detach( (Map<String, Object>) value );
+        }
+        if ( value instanceof Collection )
+        {
+            List<Object> elements = new ArrayList<Object>( ( (Collection<?>) value ).size() );
+            for ( Object element : (Collection<?>) value )
+            {
+                elements.add( detach( element ) );
+            }
+            return elements;
+        }
+        return value;
+    }
+
+    private Result execute( String cypher, Map<String, Object> parameters, long renderNanos )
+    {
+        long start = System.nanoTime();
+        Result result;
+        try
+        {
+            result = database.execute( cypher, parameters );
+        }
+        catch ( RuntimeException e )
+        {
+            for ( ExecutionListener listener : listeners )
+            {
+                listener.failed( cypher, parameters, e );
+            }
+            throw e;
+        }
+
+        long executeNanos = System.nanoTime() - start;
+        for ( ExecutionListener listener : listeners )
+        {
+            listener.executed( cypher, parameters, renderNanos, executeNanos );
+        }
+        return result;
+    }
+
+    /**
+     * Run the work in a single transaction, which is committed if the work returns normally and
+     * rolled back if it throws. Calls to this from within the work join the outer transaction.
+     * Results must be consumed before the work returns.
+     *
+     * @param work
+     * @return the result of the work
+     */
+    public <T> T inTransaction( UnitOfWork<T> work )
+    {
+        Query.checkNull( work, "Work" );
+        if ( transaction.get() != null )
+        {
+            return work.execute( this );
+        }
+
+        try ( Transaction tx = database.beginTx() )
+        {
+            transaction.set( tx );
+            T result = work.execute( this );
+            tx.success();
+            return result;
+        }
+        finally
+        {
+            transaction.remove();
+        }
+    }
+
+    /**
+     * @return true if the current thread is running a unit of work
+     */
+    public boolean isInTransaction()
+    {
+        return transaction.get() != null;
+    }
+
+    /**
+     * Compiled and parameterized queries keep their text, anything else goes through the cache.
+     */
+    static String render( Execute query, RenderCache renderCache )
+    {
+        CompiledQuery compiled = CompiledQuery.alreadyCompiled( query );
+        return compiled != null ? compiled.toString() : renderCache.render( query.toQuery() );
+    }
+
+    static Map<String, Object> parameters( Execute query )
+    {
+        return query instanceof ExecuteWithParameters ?
+                ( (ExecuteWithParameters) query ).getParameters() : query.toQuery().getParameters();
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.execution;
+
+import java.util.Map;
+
+/**
+ * Timing hook for queries run by a {@link CypherExecutor}.
+ */
+public interface ExecutionListener
+{
+    /**
+     * Called after a query has been handed to the database. Results are streamed, so the execution
+     * time covers planning and starting the query, but not consuming all of its rows.
+     *
+     * @param cypher the rendered query
+     * @param parameters
+     * @param renderNanos time spent rendering the query, which is close to zero for cached queries
+     * @param executeNanos time spent in the database
+     */
+    void executed( String cypher, Map<String, Object> parameters, long renderNanos, long executeNanos );
+
+    /**
+     * Called when the database rejects a query.
+     *
+     * @param cypher the rendered query
+     * @param parameters
+     * @param exception
+     */
+    default void failed( String cypher, Map<String, Object> parameters, RuntimeException exception )
+    {
+    }
+}
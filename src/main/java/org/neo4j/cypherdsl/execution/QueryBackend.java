@@ -0,0 +1,40 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.execution;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Something that can run rendered Cypher, such as an embedded database through {@link CypherExecutor}
+ * or a remote server. Used by {@link AsyncCypherExecutor}, which renders queries on the calling thread
+ * and runs them on its own threads.
+ */
+public interface QueryBackend
+{
+    /**
+     * Run the query and read all of its rows. The rows are read after the query has finished, so they
+     * must not hold anything that needs its transaction, such as nodes or relationships.
+     *
+     * @param cypher
+     * @param parameters
+     * @return the rows, as maps of column names to values
+     */
+    List<Map<String, Object>> rows( String cypher, Map<String, Object> parameters );
+}
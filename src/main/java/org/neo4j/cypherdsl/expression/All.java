@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.expression;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.query.AbstractExpression;
 
 /**
@@ -27,8 +29,27 @@ public class All
         extends AbstractExpression
 {
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( "*" );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 1;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        return true;
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( "*" );
+        return getClass().hashCode();
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.expression;
 
+import java.util.Collection;
+
 /**
  * Expression that evaluates to a single value
  */
@@ -25,4 +27,23 @@ public interface ScalarExpression
         extends Expression
 {
     BooleanExpression in( CollectionExpression collection );
+
+    /**
+     * IN predicate for a list of ids. Values are deduplicated and sorted, and lists larger than
+     * InCollection.BIND_THRESHOLD are bound to a single parameter instead of being written into the query.
+     *
+     * @param values
+     * @return
+     */
+    BooleanExpression in( long... values );
+
+    /**
+     * IN predicate for a collection of strings, numbers or booleans. Values are deduplicated and sorted,
+     * and lists larger than InCollection.BIND_THRESHOLD are bound to a single parameter instead of being
+     * written into the query.
+     *
+     * @param values
+     * @return
+     */
+    BooleanExpression in( Collection<?> values );
 }
@@ -18,8 +18,13 @@
  */
 package org.neo4j.cypherdsl.expression;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * Provides the possible expressions for the START clause.
@@ -38,9 +43,28 @@ public abstract class StartExpression
             extends AbstractExpression
     {
         @Override
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            appendable.append( "*" );
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            return 1;
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            return true;
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            builder.append( "*" );
+            return getClass().hashCode();
         }
     }
 
@@ -55,20 +79,58 @@ public abstract class StartExpression
             this.nodes = nodes;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
         {
-            name.asString( builder );
-            builder.append( "=node(" );
+            name.asString( appendable );
+            appendable.append( "=node(" );
             for ( int i = 0; i < nodes.length; i++ )
             {
                 Expression node = nodes[i];
                 if ( i > 0 )
                 {
-                    builder.append( ',' );
+                    appendable.append( ',' );
                 }
-                node.asString( builder );
+                node.asString( appendable );
             }
-            builder.append( ')' );
+            appendable.append( ')' );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                for ( int i = 0; i < nodes.length; i++ )
+                {
+                    nodes[i].accept( visitor );
+                }
+            }
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            int length = name.estimatedLength() + 7;
+            for ( Expression node : nodes )
+            {
+                length += node.estimatedLength() + 1;
+            }
+            return length;
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartNodes that = (StartNodes) other;
+            return name.equals( that.name ) && Arrays.equals( nodes, that.nodes );
+        }
+
+        @Override
+        protected int computeHashCode()
+        {
+            return Objects.hash( name, Arrays.hashCode( nodes ) );
         }
     }
 
@@ -87,16 +149,43 @@ public abstract class StartExpression
             this.value = value;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            name.asString( appendable );
+            appendable.append( "=node:" );
+            index.asString( appendable );
+            appendable.append( '(' );
+            key.asString( appendable );
+            appendable.append( "=" );
+            value.asString( appendable );
+            appendable.append( ')' );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                index.accept( visitor );
+                key.accept( visitor );
+                value.accept( visitor );
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartNodesLookup that = (StartNodesLookup) other;
+            return name.equals( that.name ) && index.equals( that.index ) && key.equals( that.key ) &&
+                    value.equals( that.value );
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            name.asString( builder );
-            builder.append( "=node:" );
-            index.asString( builder );
-            builder.append( '(' );
-            key.asString( builder );
-            builder.append( "=" );
-            value.asString( builder );
-            builder.append( ')' );
+            return Objects.hash( name, index, key, value );
         }
     }
 
@@ -113,17 +202,41 @@ public abstract class StartExpression
             this.query = query;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
         {
-            name.asString( builder );
-            builder.append( "=node:" );
-            index.asString( builder );
+            name.asString( appendable );
+            appendable.append( "=node:" );
+            index.asString( appendable );
             if (query.contains("\"")) {
-                builder.append( "('" ).append( query ).append( "')" );
+                appendable.append( "('" ).append( query ).append( "')" );
             } else {
-                builder.append( "(\"" ).append( query ).append( "\")" );
+                appendable.append( "(\"" ).append( query ).append( "\")" );
             }
         }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                index.accept( visitor );
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartNodesQuery that = (StartNodesQuery) other;
+            return name.equals( that.name ) && index.equals( that.index ) && query.equals( that.query );
+        }
+
+        @Override
+        protected int computeHashCode()
+        {
+            return Objects.hash( name, index, query );
+        }
     }
 
     public static class StartNodesQueryParam
@@ -139,12 +252,36 @@ public abstract class StartExpression
             this.param = param;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            name.asString( appendable );
+            appendable.append( "=node:" );
+            index.asString( appendable );
+            appendable.append( "({" ).append( param ).append( "})" );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                index.accept( visitor );
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartNodesQueryParam that = (StartNodesQueryParam) other;
+            return name.equals( that.name ) && index.equals( that.index ) && param.equals( that.param );
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            name.asString( builder );
-            builder.append( "=node:" );
-            index.asString( builder );
-            builder.append( "({" ).append( param ).append( "})" );
+            return Objects.hash( name, index, param );
         }
     }
 
@@ -159,20 +296,47 @@ public abstract class StartExpression
             this.relationships = relationships;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
         {
-            name.asString( builder );
-            builder.append( "=relationship(" );
+            name.asString( appendable );
+            appendable.append( "=relationship(" );
             for ( int i = 0; i < relationships.length; i++ )
             {
                 Expression rel = relationships[i];
                 if ( i > 0 )
                 {
-                    builder.append( ',' );
+                    appendable.append( ',' );
                 }
-                rel.asString( builder );
+                rel.asString( appendable );
             }
-            builder.append( ')' );
+            appendable.append( ')' );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                for ( int i = 0; i < relationships.length; i++ )
+                {
+                    relationships[i].accept( visitor );
+                }
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartRelationships that = (StartRelationships) other;
+            return name.equals( that.name ) && Arrays.equals( relationships, that.relationships );
+        }
+
+        @Override
+        protected int computeHashCode()
+        {
+            return Objects.hash( name, Arrays.hashCode( relationships ) );
         }
     }
 
@@ -187,10 +351,33 @@ public abstract class StartExpression
             this.parameter = parameter;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            name.asString( appendable );
+            appendable.append( "=relationship({" ).append( parameter ).append( "})" );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartRelationshipsParameters that = (StartRelationshipsParameters) other;
+            return name.equals( that.name ) && parameter.equals( that.parameter );
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            name.asString( builder );
-            builder.append( "=relationship({" ).append( parameter ).append( "})" );
+            return Objects.hash( name, parameter );
         }
     }
 
@@ -209,16 +396,43 @@ public abstract class StartExpression
             this.value = value;
         }
 
-        public void asString( StringBuilder builder )
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            name.asString( appendable );
+            appendable.append( "=relationship:" );
+            index.asString( appendable );
+            appendable.append( '(' );
+            key.asString( appendable );
+            appendable.append( '=' );
+            value.asString( appendable );
+            appendable.append( ')' );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            if ( visitor.visit( this ) )
+            {
+                name.accept( visitor );
+                index.accept( visitor );
+                key.accept( visitor );
+                value.accept( visitor );
+            }
+        }
+
+        @Override
+        protected boolean equalParts( Object other )
+        {
+            StartRelationshipsIndex that = (StartRelationshipsIndex) other;
+            return name.equals( that.name ) && index.equals( that.index ) && key.equals( that.key ) &&
+                    value.equals( that.value );
+        }
+
+        @Override
+        protected int computeHashCode()
         {
-            name.asString( builder );
-            builder.append( "=relationship:" );
-            index.asString( builder );
-            builder.append( '(' );
-            key.asString( builder );
-            builder.append( '=' );
-            value.asString( builder );
-            builder.append( ')' );
+            return Objects.hash( name, index, key, value );
         }
     }
 
@@ -21,6 +21,7 @@ package org.neo4j.cypherdsl.grammar;
 import java.util.Map;
 
 import org.neo4j.cypherdsl.AsString;
+import org.neo4j.cypherdsl.query.CompiledQuery;
 import org.neo4j.cypherdsl.query.Query;
 
 /**
@@ -55,4 +56,23 @@ public interface Execute
      * @return
      */
     ExecuteWithParameters parameters( Map<String, Object> parameters );
+
+    /**
+     * Render the query with all string, number and boolean literals replaced by generated {pN}
+     * parameters. Queries that only differ in their literal values then produce the same text,
+     * and can share a cached plan on the server. The extracted values, and any parameters
+     * already set, are available from the result.
+     *
+     * @return
+     */
+    ExecuteWithParameters parameterize();
+
+    /**
+     * Render the query once and freeze it into a CompiledQuery. The compiled query keeps the
+     * Cypher text and the names of the parameters it uses, so it can be executed many times with
+     * new parameters without building or rendering the query again.
+     *
+     * @return
+     */
+    CompiledQuery compile();
 }
@@ -18,12 +18,15 @@
  */
 package org.neo4j.cypherdsl.grammar;
 
+import java.io.IOException;
+
 import static java.util.Arrays.asList;
 
 import org.neo4j.cypherdsl.AsString;
 import org.neo4j.cypherdsl.expression.PathExpression;
 import org.neo4j.cypherdsl.expression.ReferenceExpression;
 import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 import org.neo4j.cypherdsl.query.clause.Clause;
 import org.neo4j.cypherdsl.query.clause.CreateClause;
 import org.neo4j.cypherdsl.query.clause.CreateUniqueClause;
@@ -98,13 +101,48 @@ public class ForEachStatement
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        forEachClause.asString( appendable );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        forEachClause.accept( visitor );
+    }
+
+    @Override
+    public int estimatedLength()
     {
-        forEachClause.asString( builder );
+        return forEachClause.estimatedLength();
     }
 
     public Clause getClause()
     {
         return forEachClause;
     }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        ForEachStatement that = (ForEachStatement) o;
+        return forEachClause.equals( that.forEachClause );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return forEachClause.hashCode();
+    }
 }
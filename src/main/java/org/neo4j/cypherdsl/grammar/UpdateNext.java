@@ -22,6 +22,6 @@ package org.neo4j.cypherdsl.grammar;
  * This specifies what can come after an update clause
  */
 public interface UpdateNext
-        extends Update, ForEach, With, Return, OnCreate, OnMatch
+        extends Update, ForEach, With, Return, OnCreate, OnMatch, Unwind
 {
 }
@@ -20,6 +20,8 @@ package org.neo4j.cypherdsl.query;
 
 import static org.neo4j.cypherdsl.CypherQuery.literal;
 
+import java.util.Collection;
+
 import org.neo4j.cypherdsl.CypherQuery;
 import org.neo4j.cypherdsl.expression.BooleanExpression;
 import org.neo4j.cypherdsl.expression.CollectionExpression;
@@ -29,6 +31,7 @@ import org.neo4j.cypherdsl.expression.Expression;
  * Common methods for all expressions
  */
 public abstract class AbstractExpression
+        extends AbstractQueryPart
         implements Expression
 {
     @Override
@@ -70,6 +73,16 @@ public abstract class AbstractExpression
         return new Value( new Operator( this, " IN " ), collection );
     }
 
+    public BooleanExpression in( long... values )
+    {
+        return new Value( new Operator( this, " IN " ), InCollection.of( this, values ) );
+    }
+
+    public BooleanExpression in( Collection<?> values )
+    {
+        return new Value( new Operator( this, " IN " ), InCollection.of( this, values ) );
+    }
+
     public CollectionExpression union( CollectionExpression expression )
     {
         return new Value( new Operator( this, "+" ), expression );
@@ -85,8 +98,16 @@ public abstract class AbstractExpression
     @Override
     public String toString()
     {
-        StringBuilder builder = new StringBuilder();
-        asString( builder );
-        return builder.toString();
+        StringBuilder builder = StringBuilderPool.acquire();
+        builder.ensureCapacity( estimatedLength() );
+        try
+        {
+            asString( builder );
+            return builder.toString();
+        }
+        finally
+        {
+            StringBuilderPool.release( builder );
+        }
     }
 }
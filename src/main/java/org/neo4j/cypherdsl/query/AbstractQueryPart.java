@@ -0,0 +1,93 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.io.Serializable;
+
+/**
+ * Base class for the parts of a query, such as clauses and expressions, which are compared by structure.
+ * Parts are not changed once they have been added to a query, so the hash code is computed only once.
+ * equals() compares the hash codes before comparing the parts, so parts that differ are usually told
+ * apart without walking them.
+ */
+public abstract class AbstractQueryPart
+        implements Serializable
+{
+    private transient int hashCode;
+
+    /**
+     * Compare the parts of this and another instance of the same class with the same hash code.
+     * By default instances are only equal to themselves, as they were before parts were compared
+     * by structure, so subclasses written for older versions keep working.
+     *
+     * @param other
+     * @return true if the parts are equal
+     */
+    protected boolean equalParts( Object other )
+    {
+        return false;
+    }
+
+    /**
+     * @return the hash code of the parts, which is cached by hashCode(). By default the identity hash code.
+     */
+    protected int computeHashCode()
+    {
+        return System.identityHashCode( this );
+    }
+
+    /**
+     * Forget the cached hash code, for the few parts that are still built in place.
+     */
+    protected final void resetHashCode()
+    {
+        hashCode = 0;
+    }
+
+    final boolean hasHashCode()
+    {
+        return hashCode != 0;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() || hashCode() != o.hashCode() )
+        {
+            return false;
+        }
+        return equalParts( o );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = hashCode;
+        if ( result == 0 )
+        {
+            result = computeHashCode();
+            hashCode = result;
+        }
+        return result;
+    }
+}
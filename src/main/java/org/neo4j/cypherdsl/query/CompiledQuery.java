@@ -0,0 +1,361 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.cypherdsl.AsString;
+import org.neo4j.cypherdsl.Parameter;
+import org.neo4j.cypherdsl.expression.StartExpression;
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.query.clause.Clause;
+import org.neo4j.cypherdsl.query.clause.LimitParameterClause;
+import org.neo4j.cypherdsl.query.clause.SkipParameterClause;
+
+/**
+ * A finished query that has been rendered once. The Cypher text and the names of the parameters it
+ * references are computed when the query is compiled, so a CompiledQuery can be kept around and
+ * executed many times with different parameters without building or rendering the query again.
+ * <p/>
+ * Instances are immutable and can be shared between threads. Setting parameters creates a new
+ * ExecuteWithParameters for each execution, which reuses the compiled text.
+ */
+public final class CompiledQuery
+        implements Execute
+{
+    private final Query query;
+    private final String text;
+    private final Set<String> parameterNames;
+    private final Map<String, Object> boundParameters;
+
+    public CompiledQuery( Query query )
+    {
+        Query.checkNull( query, "Query" );
+        this.query = snapshot( query );
+        this.text = this.query.toString();
+        this.parameterNames = Collections.unmodifiableSet( parameterNames( this.query ) );
+        this.boundParameters = Collections.unmodifiableMap( this.query.getParameters() );
+    }
+
+    private CompiledQuery( Query query, String text, Set<String> parameterNames )
+    {
+        this.query = query;
+        this.text = text;
+        this.parameterNames = Collections.unmodifiableSet( parameterNames );
+        this.boundParameters = Collections.unmodifiableMap( this.query.getParameters() );
+    }
+
+    /**
+     * Render the query with every string, number and boolean literal replaced by a generated
+     * {pN} parameter, so that queries that only differ in their literal values share the same text.
+     * The extracted values are returned as the parameters of the result, together with the given
+     * parameters that were already set for the query.
+     *
+     * @param query
+     * @param parameters parameters already set for the query
+     * @return
+     */
+    public static ExecuteWithParameters parameterize( Query query, Map<String, Object> parameters )
+    {
+        Query.checkNull( query, "Query" );
+        Query snapshot = snapshot( query );
+        Set<String> named = parameterNames( snapshot );
+
+        String prefix = "p";
+        while ( true )
+        {
+            StringBuilder builder = new StringBuilder( snapshot.estimatedLength() );
+            ParameterizingAppendable appendable = new ParameterizingAppendable( builder, prefix );
+            try
+            {
+                snapshot.asString( appendable );
+            }
+            catch ( IOException e )
+            {
+                // StringBuilder never throws IOException
+                throw new UncheckedIOException( e );
+            }
+
+            Map<String, Object> extracted = appendable.getParameters();
+            if ( !clashes( extracted, named ) && !clashes( extracted, parameters.keySet() ) )
+            {
+                Set<String> names = new LinkedHashSet<String>( named );
+                names.addAll( extracted.keySet() );
+                return new CompiledQuery( snapshot, builder.toString(), names ).parameters( extracted ).
+                        parameters( parameters );
+            }
+            // The query already uses a name we generated, so try again with another prefix
+            prefix = prefix + "_";
+        }
+    }
+
+    private static boolean clashes( Map<String, Object> extracted, Set<String> names )
+    {
+        for ( String name : names )
+        {
+            if ( extracted.containsKey( name ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Query snapshot( Query query )
+    {
+        try
+        {
+            return (Query) query.clone();
+        }
+        catch ( CloneNotSupportedException e )
+        {
+            throw new IllegalStateException( "Query was not cloneable" );
+        }
+    }
+
+    /**
+     * Get the compiled form of a query without rendering it, if it has one. This is the case for
+     * compiled queries, and for the results of setting parameters on them or of parameterize().
+     *
+     * @param query
+     * @return the compiled query, or null if the query has not been compiled
+     */
+    public static CompiledQuery alreadyCompiled( Execute query )
+    {
+        if ( query instanceof CompiledQuery )
+        {
+            return (CompiledQuery) query;
+        }
+        if ( query instanceof CompiledQueryWithParameters )
+        {
+            return ( (CompiledQueryWithParameters) query ).compiledQuery;
+        }
+        return null;
+    }
+
+    /**
+     * Get the names of all parameters referenced by this query: the parameters named by its parts, in
+     * the order they are visited, followed by those generated by parameterize().
+     *
+     * @return
+     */
+    public Set<String> getParameterNames()
+    {
+        return parameterNames;
+    }
+
+    @Override
+    public Query toQuery()
+    {
+        return snapshot( query );
+    }
+
+    @Override
+    public ExecuteWithParameters parameter( String name, Object value )
+    {
+        return new CompiledQueryWithParameters( this ).parameter( name, value );
+    }
+
+    @Override
+    public ExecuteWithParameters parameters( Map<String, Object> parameters )
+    {
+        return new CompiledQueryWithParameters( this ).parameters( parameters );
+    }
+
+    @Override
+    public ExecuteWithParameters parameterize()
+    {
+        return parameterize( query, Collections.<String, Object>emptyMap() );
+    }
+
+    @Override
+    public CompiledQuery compile()
+    {
+        return this;
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( text );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        query.accept( visitor );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return text.length();
+    }
+
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+
+    /**
+     * Collect the names of the parameters that the parts of a query refer to, rather than looking for
+     * {name} in its text, where it may also be part of a string literal.
+     */
+    static Set<String> parameterNames( Query query )
+    {
+        final Set<String> names = new LinkedHashSet<String>();
+        query.accept( new QueryVisitor()
+        {
+            @Override
+            public void visit( Parameter parameter )
+            {
+                names.add( parameter.getName() );
+            }
+
+            @Override
+            public boolean visit( Clause clause )
+            {
+                if ( clause instanceof SkipParameterClause )
+                {
+                    names.add( ( (SkipParameterClause) clause ).getParameterName() );
+                }
+                else if ( clause instanceof LimitParameterClause )
+                {
+                    names.add( ( (LimitParameterClause) clause ).getParameterName() );
+                }
+                return true;
+            }
+
+            @Override
+            public boolean visit( StartExpression startExpression )
+            {
+                if ( startExpression instanceof StartExpression.StartNodesQueryParam )
+                {
+                    names.add( ( (StartExpression.StartNodesQueryParam) startExpression ).param );
+                }
+                else if ( startExpression instanceof StartExpression.StartRelationshipsParameters )
+                {
+                    names.add( ( (StartExpression.StartRelationshipsParameters) startExpression ).parameter );
+                }
+                return true;
+            }
+
+            @Override
+            public boolean visitOther( AsString part )
+            {
+                if ( part instanceof InCollection && ( (InCollection) part ).isBound() )
+                {
+                    names.add( ( (InCollection) part ).getParameterName() );
+                }
+                return true;
+            }
+        } );
+        return names;
+    }
+
+    private static class CompiledQueryWithParameters
+            implements ExecuteWithParameters
+    {
+        private final CompiledQuery compiledQuery;
+        private final Map<String, Object> parameters = new HashMap<String, Object>();
+
+        private CompiledQueryWithParameters( CompiledQuery compiledQuery )
+        {
+            this.compiledQuery = compiledQuery;
+            this.parameters.putAll( compiledQuery.boundParameters );
+        }
+
+        @Override
+        public Query toQuery()
+        {
+            return compiledQuery.toQuery();
+        }
+
+        @Override
+        public Map<String, Object> getParameters()
+        {
+            return parameters;
+        }
+
+        @Override
+        public ExecuteWithParameters parameter( String name, Object value )
+        {
+            Query.checkNotBound( compiledQuery.boundParameters, name, value );
+            parameters.put( name, value );
+            return this;
+        }
+
+        @Override
+        public ExecuteWithParameters parameters( Map<String, Object> parameters )
+        {
+            for ( Map.Entry<String, Object> parameter : parameters.entrySet() )
+            {
+                Query.checkNotBound( compiledQuery.boundParameters, parameter.getKey(), parameter.getValue() );
+            }
+            this.parameters.putAll( parameters );
+            return this;
+        }
+
+        @Override
+        public ExecuteWithParameters parameterize()
+        {
+            return CompiledQuery.parameterize( compiledQuery.query, parameters );
+        }
+
+        @Override
+        public CompiledQuery compile()
+        {
+            return compiledQuery;
+        }
+
+        @Override
+        public void asString( Appendable appendable )
+                throws IOException
+        {
+            appendable.append( compiledQuery.text );
+        }
+
+        @Override
+        public void accept( QueryVisitor visitor )
+        {
+            compiledQuery.query.accept( visitor );
+        }
+
+        @Override
+        public int estimatedLength()
+        {
+            return compiledQuery.text.length();
+        }
+
+        @Override
+        public String toString()
+        {
+            return compiledQuery.text;
+        }
+    }
+}
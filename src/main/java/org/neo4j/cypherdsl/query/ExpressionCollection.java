@@ -18,6 +18,13 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cypherdsl.Literal;
+import org.neo4j.cypherdsl.expression.Expression;
+
 /**
  * Represents a collection of expressions
  */
@@ -32,10 +39,77 @@ public class ExpressionCollection
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        if ( appendable instanceof ParameterizingAppendable )
+        {
+            List<Object> values = literalValues();
+            if ( values != null )
+            {
+                // Bind the whole list, so that collections of different sizes share the same query text
+                ( (ParameterizingAppendable) appendable ).appendParameter( values );
+                return;
+            }
+        }
+
+        appendable.append( "[" );
+        expressions.asString( appendable );
+        appendable.append( "]" );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            expressions.accept( visitor );
+        }
+    }
+
+    /**
+     * @return the values if this is a non-empty collection of bindable literals, otherwise null
+     */
+    private List<Object> literalValues()
+    {
+        if ( expressions.expressions.length == 0 )
+        {
+            return null;
+        }
+
+        List<Object> values = new ArrayList<Object>( expressions.expressions.length );
+        for ( Expression expression : expressions.expressions )
+        {
+            if ( !( expression instanceof Literal ) )
+            {
+                return null;
+            }
+            Object value = ( (Literal) expression ).getValue();
+            if ( !ParameterizingAppendable.isBindable( value ) )
+            {
+                return null;
+            }
+            values.add( value );
+        }
+        return values;
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 2 + expressions.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        ExpressionCollection that = (ExpressionCollection) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( "[" );
-        expressions.asString( builder );
-        builder.append( "]" );
+        return expressions.hashCode();
     }
 }
@@ -18,6 +18,10 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.expression.Expression;
 
 /**
@@ -42,16 +46,57 @@ public class Expressions
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         for ( int i = 0; i < expressions.length; i++ )
         {
             Expression expression = expressions[i];
             if ( i > 0 )
             {
-                builder.append( separator );
+                appendable.append( separator );
+            }
+            expression.asString( appendable );
+        }
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            for ( int i = 0; i < expressions.length; i++ )
+            {
+                expressions[i].accept( visitor );
             }
-            expression.asString( builder );
         }
     }
+
+    @Override
+    public int estimatedLength()
+    {
+        int length = 0;
+        for ( int i = 0; i < expressions.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                length += separator.length();
+            }
+            length += expressions[i].estimatedLength();
+        }
+        return length;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        Expressions that = (Expressions) other;
+        return Arrays.equals( expressions, that.expressions ) && separator.equals( that.separator );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( Arrays.hashCode( expressions ), separator );
+    }
 }
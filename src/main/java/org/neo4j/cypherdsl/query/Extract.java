@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.expression.CollectionExpression;
 import org.neo4j.cypherdsl.expression.ScalarExpression;
@@ -40,15 +43,45 @@ public class Extract
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( "extract" ).append( '(' );
+        name.asString( appendable );
+        appendable.append( " IN " );
+        iterable.asString( appendable );
+        appendable.append( "|" );
+        expression.asString( appendable );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            name.accept( visitor );
+            iterable.accept( visitor );
+            expression.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 14 + name.estimatedLength() + iterable.estimatedLength() + expression.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
     {
-        builder.append( "extract" ).append( '(' );
-        name.asString( builder );
-        builder.append( " IN " );
-        iterable.asString( builder );
-        builder.append( "|" );
-        expression.asString( builder );
-        builder.append( ')' );
+        Extract that = (Extract) other;
+        return name.equals( that.name ) && iterable.equals( that.iterable ) && expression.equals( that.expression );
     }
 
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( name, iterable, expression );
+    }
 }
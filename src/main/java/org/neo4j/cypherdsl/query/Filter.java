@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.expression.BooleanExpression;
 import org.neo4j.cypherdsl.expression.CollectionExpression;
@@ -40,14 +43,45 @@ public class Filter
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( "filter" ).append( '(' );
+        name.asString( appendable );
+        appendable.append( " IN " );
+        iterable.asString( appendable );
+        appendable.append( " WHERE " );
+        predicate.asString( appendable );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            name.accept( visitor );
+            iterable.accept( visitor );
+            predicate.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 19 + name.estimatedLength() + iterable.estimatedLength() + predicate.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        Filter that = (Filter) other;
+        return name.equals( that.name ) && iterable.equals( that.iterable ) && predicate.equals( that.predicate );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( "filter" ).append( '(' );
-        name.asString( builder );
-        builder.append( " IN " );
-        iterable.asString( builder );
-        builder.append( " WHERE " );
-        predicate.asString( builder );
-        builder.append( ')' );
+        return Objects.hash( name, iterable, predicate );
     }
 }
@@ -0,0 +1,129 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appendable that hashes the rendered query instead of storing it. Parameter references
+ * are replaced by the order in which each name first appears, so that queries using
+ * different parameter names for the same shape hash the same. Uses 64 bit FNV-1a,
+ * so fingerprints are stable across JVMs and versions.
+ */
+final class FingerprintAppendable
+        implements Appendable
+{
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Integer> parameterOrdinals = new HashMap<String, Integer>();
+    private final StringBuilder parameterName = new StringBuilder();
+    private long hash = FNV_OFFSET_BASIS;
+    private boolean inParameter;
+    private boolean inQuotedIdentifier;
+
+    @Override
+    public Appendable append( CharSequence csq )
+    {
+        return append( csq, 0, csq.length() );
+    }
+
+    @Override
+    public Appendable append( CharSequence csq, int start, int end )
+    {
+        for ( int i = start; i < end; i++ )
+        {
+            append( csq.charAt( i ) );
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append( char c )
+    {
+        if ( inParameter )
+        {
+            if ( Character.isJavaIdentifierPart( c ) )
+            {
+                parameterName.append( c );
+                return this;
+            }
+
+            inParameter = false;
+            if ( c == '}' && parameterName.length() > 0 )
+            {
+                String name = parameterName.toString();
+                Integer ordinal = parameterOrdinals.get( name );
+                if ( ordinal == null )
+                {
+                    ordinal = parameterOrdinals.size();
+                    parameterOrdinals.put( name, ordinal );
+                }
+                parameterName.setLength( 0 );
+                mix( '{' );
+                mix( ordinal.toString() );
+                mix( '}' );
+                return this;
+            }
+
+            // Not a parameter reference, e.g. the start of a map literal
+            mix( '{' );
+            mix( parameterName );
+            parameterName.setLength( 0 );
+        }
+
+        if ( c == '`' )
+        {
+            inQuotedIdentifier = !inQuotedIdentifier;
+        }
+        if ( c == '{' && !inQuotedIdentifier )
+        {
+            inParameter = true;
+            return this;
+        }
+        mix( c );
+        return this;
+    }
+
+    long getFingerprint()
+    {
+        if ( inParameter )
+        {
+            inParameter = false;
+            mix( '{' );
+            mix( parameterName );
+            parameterName.setLength( 0 );
+        }
+        return hash;
+    }
+
+    private void mix( CharSequence csq )
+    {
+        for ( int i = 0; i < csq.length(); i++ )
+        {
+            mix( csq.charAt( i ) );
+        }
+    }
+
+    private void mix( char c )
+    {
+        hash = ( hash ^ c ) * FNV_PRIME;
+    }
+}
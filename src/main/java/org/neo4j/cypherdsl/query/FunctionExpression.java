@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.expression.Expression;
 
 /**
@@ -36,10 +39,39 @@ public class FunctionExpression
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( name ).append( '(' );
+        expression.asString( appendable );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            expression.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return name.length() + 2 + expression.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        FunctionExpression that = (FunctionExpression) other;
+        return name.equals( that.name ) && expression.equals( that.expression );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( name ).append( '(' );
-        expression.asString( builder );
-        builder.append( ')' );
+        return Objects.hash( name, expression );
     }
 }
@@ -0,0 +1,408 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.neo4j.cypherdsl.AsString;
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.Literal;
+import org.neo4j.cypherdsl.Parameter;
+import org.neo4j.cypherdsl.expression.Expression;
+
+/**
+ * The right hand side of an IN predicate built from plain Java values. The values are deduplicated
+ * and sorted, so that the same set of values always gives the same query. Small lists are rendered
+ * inline, larger ones as a single {parameter} whose value is available from {@link Query#getParameters()}.
+ * The parameter is named after the tested expression, with a numbered suffix if the expression or query
+ * it is part of has another list for the same expression.
+ */
+public class InCollection
+        extends AbstractExpression
+{
+    /**
+     * Lists with more values than this are bound to a parameter instead of being rendered inline.
+     */
+    public static final int BIND_THRESHOLD = 32;
+
+    private final String name;
+    private final long[] longs;
+    private final List<Object> objects;
+
+    private InCollection( String name, long[] longs, List<Object> objects )
+    {
+        this.name = name;
+        this.longs = longs;
+        this.objects = objects;
+    }
+
+    /**
+     * @param left the expression that is tested, used to name the parameter
+     * @param values
+     * @return
+     */
+    public static InCollection of( Expression left, long[] values )
+    {
+        Query.checkNull( values, "Values" );
+        return new InCollection( parameterName( left ), sortedUnique( values.clone() ), null );
+    }
+
+    /**
+     * Values must be strings, numbers or booleans. Whole numbers are treated as longs, strings and
+     * other comparable values of a single type are sorted, anything else keeps its first-seen order.
+     *
+     * @param left the expression that is tested, used to name the parameter
+     * @param values
+     * @return
+     */
+    public static InCollection of( Expression left, Collection<?> values )
+    {
+        Query.checkNull( values, "Values" );
+
+        boolean integral = true;
+        Class<?> type = null;
+        for ( Object value : values )
+        {
+            Query.checkNull( value, "Value" );
+            if ( !ParameterizingAppendable.isBindable( value ) )
+            {
+                throw new IllegalArgumentException( "Value " + value + " can not be used in an IN list" );
+            }
+            integral &= value instanceof Long || value instanceof Integer || value instanceof Short ||
+                    value instanceof Byte;
+            type = type == null || type == value.getClass() ? value.getClass() : Object.class;
+        }
+
+        String name = parameterName( left );
+        if ( integral )
+        {
+            long[] longs = new long[values.size()];
+            int i = 0;
+            for ( Object value : values )
+            {
+                longs[i++] = ( (Number) value ).longValue();
+            }
+            return new InCollection( name, sortedUnique( longs ), null );
+        }
+
+        Collection<Object> unique = type != null && Comparable.class.isAssignableFrom( type ) ?
+                new TreeSet<Object>() : new LinkedHashSet<Object>();
+        unique.addAll( values );
+        return new InCollection( name, null, Collections.unmodifiableList( new ArrayList<Object>( unique ) ) );
+    }
+
+    private static long[] sortedUnique( long[] values )
+    {
+        Arrays.sort( values );
+        int length = 0;
+        for ( int i = 0; i < values.length; i++ )
+        {
+            if ( length == 0 || values[i] != values[length - 1] )
+            {
+                values[length++] = values[i];
+            }
+        }
+        return length == values.length ? values : Arrays.copyOf( values, length );
+    }
+
+    /**
+     * Name the parameter after the tested expression, so n.id IN ... binds {in_n_id}. The name only
+     * depends on the shape of the query, which keeps the query text stable for the plan cache.
+     */
+    private static String parameterName( Expression left )
+    {
+        StringBuilder name = new StringBuilder( "in_" );
+        StringBuilder text = new StringBuilder();
+        left.asString( text );
+        for ( int i = 0; i < text.length(); i++ )
+        {
+            char c = text.charAt( i );
+            if ( Character.isJavaIdentifierPart( c ) )
+            {
+                name.append( c );
+            }
+            else if ( name.charAt( name.length() - 1 ) != '_' )
+            {
+                name.append( '_' );
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * @return the number of distinct values
+     */
+    public int size()
+    {
+        return longs != null ? longs.length : objects.size();
+    }
+
+    /**
+     * @return true if this list is rendered as a parameter rather than inline
+     */
+    public boolean isBound()
+    {
+        return size() > BIND_THRESHOLD;
+    }
+
+    /**
+     * @return the name of the parameter this list is bound to, if it is large enough to be bound
+     */
+    public String getParameterName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the distinct values, as a long[] for whole numbers and a List otherwise
+     */
+    public Object getValues()
+    {
+        return longs != null ? longs.clone() : objects;
+    }
+
+    /**
+     * Give the bound lists of a part parameter names that are not yet taken by different lists. Equal
+     * lists share a parameter, and a list whose name is taken gets a numbered suffix, so that
+     * n.id IN [...] OR n.id IN [...] binds {in_n_id} and {in_n_id_2}. The names are resolved whenever
+     * parts are combined, by And, Or and Query, so every list renders its own parameter name however
+     * it is rendered.
+     *
+     * @param part the part to name the lists of
+     * @param taken the lists by parameter name, to which the lists of the part are added
+     * @return the part, or a copy of it in which the lists that had to be renamed are replaced
+     */
+    static <T extends AsString> T resolveNames( T part, Map<String, InCollection> taken )
+    {
+        if ( part == null )
+        {
+            return null;
+        }
+
+        final List<InCollection> lists = new ArrayList<InCollection>();
+        Map<String, InCollection> known = part instanceof Value ? ( (Value) part ).boundLists() : null;
+        if ( known != null )
+        {
+            // Chains built in a loop keep their lists, so extending them does not walk them again
+            lists.addAll( known.values() );
+        }
+        else
+        {
+            part.accept( new QueryVisitor()
+            {
+                @Override
+                public boolean visit( Value value )
+                {
+                    Map<String, InCollection> cached = value.boundLists();
+                    if ( cached != null )
+                    {
+                        lists.addAll( cached.values() );
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean visitOther( AsString other )
+                {
+                    if ( other instanceof InCollection && ( (InCollection) other ).isBound() )
+                    {
+                        lists.add( (InCollection) other );
+                    }
+                    return true;
+                }
+            } );
+        }
+
+        Map<InCollection, InCollection> renamed = new HashMap<InCollection, InCollection>();
+        for ( InCollection list : lists )
+        {
+            InCollection existing = taken.get( list.name );
+            if ( existing == null )
+            {
+                taken.put( list.name, list );
+            }
+            else if ( !existing.sameValues( list ) )
+            {
+                for ( int i = 2; !renamed.containsKey( list ); i++ )
+                {
+                    String name = list.name + "_" + i;
+                    InCollection other = taken.get( name );
+                    if ( other == null )
+                    {
+                        other = new InCollection( name, list.longs, list.objects );
+                        taken.put( name, other );
+                    }
+                    if ( other.sameValues( list ) )
+                    {
+                        renamed.put( list, other );
+                    }
+                }
+            }
+        }
+        return renamed.isEmpty() ? part : replace( part, renamed );
+    }
+
+    private boolean sameValues( InCollection other )
+    {
+        return Arrays.equals( longs, other.longs ) && Objects.equals( objects, other.objects );
+    }
+
+    /**
+     * Copy a part through serialization, with the renamed lists in place of the original ones. Lists,
+     * identifiers, literals and parameters are immutable and shared with the original instead of copied.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <T extends AsString> T replace( T part, final Map<InCollection, InCollection> renamed )
+    {
+        final List<Object> shared = new ArrayList<Object>();
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream( bytes )
+            {
+                {
+                    enableReplaceObject( true );
+                }
+
+                @Override
+                protected Object replaceObject( Object object )
+                {
+                    if ( object instanceof InCollection || object instanceof Identifier ||
+                            object instanceof Literal || object instanceof Parameter )
+                    {
+                        InCollection list = renamed.get( object );
+                        shared.add( list != null ? list : object );
+                        return new SharedPart( shared.size() - 1 );
+                    }
+                    return object;
+                }
+            };
+            out.writeObject( part );
+            out.close();
+
+            ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) )
+            {
+                {
+                    enableResolveObject( true );
+                }
+
+                @Override
+                protected Object resolveObject( Object object )
+                {
+                    return object instanceof SharedPart ? shared.get( ( (SharedPart) object ).index ) : object;
+                }
+            };
+            return (T) in.readObject();
+        }
+        catch ( IOException | ClassNotFoundException e )
+        {
+            throw new IllegalStateException( "Could not rename the IN lists of " + part, e );
+        }
+    }
+
+    private static final class SharedPart
+            implements Serializable
+    {
+        private final int index;
+
+        private SharedPart( int index )
+        {
+            this.index = index;
+        }
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        if ( isBound() )
+        {
+            appendable.append( '{' ).append( name ).append( '}' );
+        }
+        else if ( appendable instanceof ParameterizingAppendable && size() > 0 )
+        {
+            ( (ParameterizingAppendable) appendable ).appendParameter( getValues() );
+        }
+        else
+        {
+            appendable.append( '[' );
+            for ( int i = 0; i < size(); i++ )
+            {
+                if ( i > 0 )
+                {
+                    appendable.append( ',' );
+                }
+                if ( longs != null )
+                {
+                    appendable.append( String.valueOf( longs[i] ) );
+                }
+                else
+                {
+                    Object value = objects.get( i );
+                    if ( value instanceof String )
+                    {
+                        appendable.append( '"' ).append( value.toString().replace( "\\", "\\\\" ).replace( "\"",
+                                "\\\"" ) ).append( '"' );
+                    }
+                    else
+                    {
+                        appendable.append( value.toString() );
+                    }
+                }
+            }
+            appendable.append( ']' );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return isBound() ? name.length() + 2 : 2 + size() * 9;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        InCollection that = (InCollection) other;
+        return name.equals( that.name ) && Arrays.equals( longs, that.longs ) &&
+                ( objects == null ? that.objects == null : objects.equals( that.objects ) );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return 31 * name.hashCode() + ( longs != null ? Arrays.hashCode( longs ) : objects.hashCode() );
+    }
+}
@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.expression.BooleanExpression;
 import org.neo4j.cypherdsl.expression.CollectionExpression;
@@ -43,14 +46,47 @@ public class IterablePredicateExpression
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( function ).append( '(' );
+        name.asString( appendable );
+        appendable.append( " IN " );
+        iterable.asString( appendable );
+        appendable.append( " WHERE " );
+        predicate.asString( appendable );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            name.accept( visitor );
+            iterable.accept( visitor );
+            predicate.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return function.length() + 13 + name.estimatedLength() + iterable.estimatedLength()
+                + predicate.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        IterablePredicateExpression that = (IterablePredicateExpression) other;
+        return function.equals( that.function ) && name.equals( that.name ) && iterable.equals( that.iterable ) &&
+                predicate.equals( that.predicate );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( function ).append( '(' );
-        name.asString( builder );
-        builder.append( " IN " );
-        iterable.asString( builder );
-        builder.append( " WHERE " );
-        predicate.asString( builder );
-        builder.append( ')' );
+        return Objects.hash( function, name, iterable, predicate );
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.Identifier;
 
 /**
@@ -32,9 +34,32 @@ public class LabelValue extends AbstractExpression {
 	}
 
 	@Override
-	public void asString( StringBuilder builder ) {
-        builder.append( ":" );
-		label.asString( builder );
+	public void asString( Appendable appendable ) throws IOException {
+		appendable.append( ":" );
+		label.asString( appendable );
+	}
+
+	@Override
+	public int estimatedLength() {
+		return 1 + label.estimatedLength();
+	}
+
+	@Override
+	public void accept( QueryVisitor visitor ) {
+		if ( visitor.visitOther( this ) ) {
+			label.accept( visitor );
+		}
+	}
+
+	@Override
+	protected boolean equalParts( Object other ) {
+		LabelValue that = (LabelValue) other;
+		return label.equals( that.label );
+	}
+
+	@Override
+	protected int computeHashCode() {
+		return label.hashCode();
 	}
 
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+
 /**
  * Represents a collection of Label
  */
@@ -32,11 +34,48 @@ public class LabelValues
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        for ( LabelValue label : labels )
+        {
+        	label.asString( appendable );
+        }
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            for ( LabelValue label : labels )
+            {
+                label.accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
     {
+        int length = 0;
         for ( LabelValue label : labels )
         {
-        	label.asString( builder );
+            length += label.estimatedLength();
         }
+        return length;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        LabelValues that = (LabelValues) other;
+        return Query.iterableEquals( labels, that.labels );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Query.iterableHashCode( labels );
     }
 }
@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.expression.PathExpression;
 
@@ -38,10 +41,40 @@ public class NamedPath
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        identifier.asString( appendable );
+        appendable.append( '=' );
+        path.asString( appendable );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            identifier.accept( visitor );
+            path.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return identifier.estimatedLength() + 1 + path.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        NamedPath that = (NamedPath) other;
+        return identifier.equals( that.identifier ) && path.equals( that.path );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        identifier.asString( builder );
-        builder.append( '=' );
-        path.asString( builder );
+        return Objects.hash( identifier, path );
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+
 import org.neo4j.cypherdsl.AsString;
 
 /**
@@ -29,26 +31,29 @@ public enum NullHandling
     NULL
             {
                 @Override
-                public void asString( StringBuilder builder )
+                public void asString( Appendable appendable )
+                        throws IOException
                 {
                 }
             },
     TRUE_IF_MISSING
             {
                 @Override
-                public void asString( StringBuilder builder )
+                public void asString( Appendable appendable )
+                        throws IOException
                 {
-                    builder.append( "? " );
+                    appendable.append( "? " );
                 }
             },
     FALSE_IF_MISSING
             {
                 @Override
-                public void asString( StringBuilder builder )
+                public void asString( Appendable appendable )
+                        throws IOException
                 {
                     // Add a space after the exclamation mark because otherwise cypher
                     // gives an error message saying that "!=" is not a valid inequality comparator
-                    builder.append( "! " );
+                    appendable.append( "! " );
                 }
             }
 }
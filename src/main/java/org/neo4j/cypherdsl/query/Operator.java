@@ -18,7 +18,8 @@
  */
 package org.neo4j.cypherdsl.query;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.util.Objects;
 
 import org.neo4j.cypherdsl.AsString;
 import org.neo4j.cypherdsl.expression.Expression;
@@ -28,7 +29,8 @@ import org.neo4j.cypherdsl.expression.Expression;
  * with a Value that holds an Operator and deals with the 2.
  */
 public class Operator
-        implements AsString, Serializable
+        extends AbstractQueryPart
+        implements AsString
 {
     public final Expression left; // null if this is a unary operator
     public final String operator;
@@ -45,12 +47,41 @@ public class Operator
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         if ( left != null )
         {
-            left.asString( builder );
+            left.asString( appendable );
         }
-        builder.append( operator );
+        appendable.append( operator );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) && left != null )
+        {
+            left.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return ( left != null ? left.estimatedLength() : 0 ) + operator.length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        Operator that = (Operator) other;
+        return Objects.equals( left, that.left ) && operator.equals( that.operator );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( left, operator );
     }
 }
@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.Order;
 import org.neo4j.cypherdsl.expression.Expression;
 
@@ -41,19 +44,48 @@ public class OrderByExpression
         return new OrderByExpression( expression, order );
     }
 
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        expression.asString( builder );
+        expression.asString( appendable );
         if ( order != null )
         {
-            builder.append( ' ' ).append( order.name() );
+            appendable.append( ' ' ).append( order.name() );
+        }
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            expression.accept( visitor );
         }
     }
 
+    @Override
+    public int estimatedLength()
+    {
+        return expression.estimatedLength() + ( order != null ? 1 + order.name().length() : 0 );
+    }
+
     @Override
     public Object clone()
             throws CloneNotSupportedException
     {
         return super.clone();
     }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        OrderByExpression that = (OrderByExpression) other;
+        return expression.equals( that.expression ) && Objects.equals( order, that.order );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( expression, order );
+    }
 }
@@ -0,0 +1,96 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appendable used when rendering a query with its literals extracted into parameters.
+ * Literals that see this appendable write a generated {pN} parameter reference instead
+ * of their value, and the value is recorded in the parameter map.
+ */
+public final class ParameterizingAppendable
+        implements Appendable
+{
+    private final Appendable appendable;
+    private final String prefix;
+    private final Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+
+    ParameterizingAppendable( Appendable appendable, String prefix )
+    {
+        this.appendable = appendable;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Only values that Cypher accepts as parameters are extracted, anything else is rendered as before.
+     *
+     * @param value
+     * @return true if the value can be passed as a parameter
+     */
+    public static boolean isBindable( Object value )
+    {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    /**
+     * Bind the value to a newly generated parameter and append a reference to it.
+     *
+     * @param value
+     * @throws IOException if the underlying appendable fails
+     */
+    public void appendParameter( Object value )
+            throws IOException
+    {
+        String name = prefix + parameters.size();
+        parameters.put( name, value );
+        appendable.append( '{' ).append( name ).append( '}' );
+    }
+
+    Map<String, Object> getParameters()
+    {
+        return parameters;
+    }
+
+    @Override
+    public Appendable append( CharSequence csq )
+            throws IOException
+    {
+        appendable.append( csq );
+        return this;
+    }
+
+    @Override
+    public Appendable append( CharSequence csq, int start, int end )
+            throws IOException
+    {
+        appendable.append( csq, start, end );
+        return this;
+    }
+
+    @Override
+    public Appendable append( char c )
+            throws IOException
+    {
+        appendable.append( c );
+        return this;
+    }
+}
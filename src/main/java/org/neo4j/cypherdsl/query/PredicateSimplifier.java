@@ -0,0 +1,220 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.cypherdsl.CypherQuery;
+import org.neo4j.cypherdsl.Literal;
+import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.expression.Expression;
+
+/**
+ * Simplifies trees of and/or predicates. Chained and() and or() calls build nested binary
+ * nodes; this flattens them into a single n-ary node per level, removes duplicate terms
+ * and folds literal true and false terms.
+ * <p/>
+ * Nested nodes are simplified with an explicit stack rather than recursion, so long chains
+ * do not overflow the stack, even where and and or alternate.
+ */
+public final class PredicateSimplifier
+{
+    private PredicateSimplifier()
+    {
+    }
+
+    /**
+     * Simplify the given predicate. Anything other than an and/or tree is returned unchanged.
+     *
+     * @param expression
+     * @return the simplified predicate
+     */
+    public static BooleanExpression simplify( BooleanExpression expression )
+    {
+        Query.checkNull( expression, "Expression" );
+        if ( !isAndOr( expression ) )
+        {
+            return expression;
+        }
+
+        // Each node is simplified once its terms are; a term of the other kind gets a node of its own on the stack
+        Deque<Node> stack = new ArrayDeque<Node>();
+        stack.push( new Node( (Value) expression ) );
+        while ( true )
+        {
+            Node node = stack.peek();
+            if ( node.folded || node.pending.isEmpty() )
+            {
+                stack.pop();
+                BooleanExpression simplified = combine( node.and, node.folded ? null : node.terms );
+                if ( stack.isEmpty() )
+                {
+                    return simplified;
+                }
+                Node parent = stack.peek();
+                if ( isSameKind( parent.and, simplified ) )
+                {
+                    // Simplifying the other kind of node can leave a single term of this kind
+                    pushAll( parent.pending, terms( (Value) simplified ) );
+                }
+                else
+                {
+                    parent.add( simplified );
+                }
+                continue;
+            }
+
+            BooleanExpression term = (BooleanExpression) node.pending.pop();
+            if ( isSameKind( node.and, term ) )
+            {
+                pushAll( node.pending, terms( (Value) term ) );
+            }
+            else if ( isAndOr( term ) )
+            {
+                stack.push( new Node( (Value) term ) );
+            }
+            else
+            {
+                node.add( term );
+            }
+        }
+    }
+
+    /**
+     * Simplify a list of predicates that are implicitly and:ed together, like the expressions of
+     * a WHERE clause. Each term is simplified, duplicates and literal true terms are removed, and
+     * a literal false term replaces the whole list. The list is updated in place.
+     *
+     * @param conjuncts
+     */
+    public static void simplifyConjuncts( List<BooleanExpression> conjuncts )
+    {
+        BooleanExpression[] terms = conjuncts.toArray( new BooleanExpression[conjuncts.size()] );
+        List<BooleanExpression> simplified = new ArrayList<BooleanExpression>( terms.length );
+        Set<BooleanExpression> seen = new HashSet<BooleanExpression>();
+        conjuncts.clear();
+        for ( BooleanExpression term : terms )
+        {
+            BooleanExpression simplifiedTerm = simplify( term );
+            Boolean constant = constant( simplifiedTerm );
+            if ( constant != null )
+            {
+                if ( !constant )
+                {
+                    conjuncts.add( simplifiedTerm );
+                    return;
+                }
+            }
+            else if ( seen.add( simplifiedTerm ) )
+            {
+                simplified.add( simplifiedTerm );
+            }
+        }
+        conjuncts.addAll( simplified );
+    }
+
+    private static BooleanExpression combine( boolean and, List<BooleanExpression> terms )
+    {
+        if ( terms == null )
+        {
+            return CypherQuery.literal( !and );
+        }
+        if ( terms.isEmpty() )
+        {
+            return CypherQuery.literal( and );
+        }
+        if ( terms.size() == 1 )
+        {
+            return terms.get( 0 );
+        }
+
+        BooleanExpression[] array = terms.toArray( new BooleanExpression[terms.size()] );
+        return and ? new CypherQuery.And( array ) : new CypherQuery.Or( array );
+    }
+
+    private static boolean isAndOr( Expression expression )
+    {
+        return expression instanceof CypherQuery.And || expression instanceof CypherQuery.Or;
+    }
+
+    private static boolean isSameKind( boolean and, Expression expression )
+    {
+        return and ? expression instanceof CypherQuery.And : expression instanceof CypherQuery.Or;
+    }
+
+    private static Expression[] terms( Value andOr )
+    {
+        return ( (Expressions) andOr.value ).expressions;
+    }
+
+    private static void pushAll( Deque<Expression> stack, Expression[] expressions )
+    {
+        // Push in reverse so that terms are popped, and kept, in their original order
+        for ( int i = expressions.length - 1; i >= 0; i-- )
+        {
+            stack.push( expressions[i] );
+        }
+    }
+
+    private static Boolean constant( Expression expression )
+    {
+        if ( expression instanceof Literal && ( (Literal) expression ).getValue() instanceof Boolean )
+        {
+            return (Boolean) ( (Literal) expression ).getValue();
+        }
+        return null;
+    }
+
+    /**
+     * An and/or node that is being simplified, with the terms that are still to be simplified.
+     */
+    private static final class Node
+    {
+        private final boolean and;
+        private final Deque<Expression> pending = new ArrayDeque<Expression>();
+        private final List<BooleanExpression> terms = new ArrayList<BooleanExpression>();
+        private final Set<BooleanExpression> seen = new HashSet<BooleanExpression>();
+        // Set when a term folds the whole node to its absorbing constant
+        private boolean folded;
+
+        private Node( Value andOr )
+        {
+            this.and = andOr instanceof CypherQuery.And;
+            pushAll( pending, terms( andOr ) );
+        }
+
+        private void add( BooleanExpression term )
+        {
+            Boolean constant = constant( term );
+            if ( constant != null )
+            {
+                folded |= constant != and;
+            }
+            else if ( seen.add( term ) )
+            {
+                terms.add( term );
+            }
+        }
+    }
+}
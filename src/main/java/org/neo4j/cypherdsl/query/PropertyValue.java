@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.AsString;
 import org.neo4j.cypherdsl.Identifier;
 import org.neo4j.cypherdsl.expression.Expression;
@@ -26,6 +29,7 @@ import org.neo4j.cypherdsl.expression.Expression;
  * Represents matching a property to a value
  */
 public class PropertyValue
+        extends AbstractQueryPart
         implements AsString
 {
     private final Identifier id;
@@ -38,10 +42,40 @@ public class PropertyValue
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        id.asString( appendable );
+        appendable.append( ':' );
+        value.asString( appendable );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            id.accept( visitor );
+            value.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return id.estimatedLength() + 1 + value.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        PropertyValue that = (PropertyValue) other;
+        return id.equals( that.id ) && value.equals( that.value );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        id.asString( builder );
-        builder.append( ':' );
-        value.asString( builder );
+        return Objects.hash( id, value );
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+
 /**
  * Represents a collection of PropertyValue
  */
@@ -32,16 +34,53 @@ public class PropertyValues
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        builder.append( "{" );
+        appendable.append( "{" );
         String comma = "";
         for ( PropertyValue propertyValue : propertyValues )
         {
-            builder.append( comma );
-            propertyValue.asString( builder );
+            appendable.append( comma );
+            propertyValue.asString( appendable );
             comma = ",";
         }
-        builder.append( '}' );
+        appendable.append( '}' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            for ( PropertyValue propertyValue : propertyValues )
+            {
+                propertyValue.accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        int length = 2;
+        for ( PropertyValue propertyValue : propertyValues )
+        {
+            length += propertyValue.estimatedLength() + 1;
+        }
+        return length;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        PropertyValues that = (PropertyValues) other;
+        return Query.iterableEquals( propertyValues, that.propertyValues );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Query.iterableHashCode( propertyValues );
     }
 }
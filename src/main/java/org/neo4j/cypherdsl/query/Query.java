@@ -18,8 +18,19 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.neo4j.cypherdsl.AsString;
 import org.neo4j.cypherdsl.Literal;
@@ -38,6 +49,7 @@ public class Query
     
     private static final String QUERY_PREFIX = "CYPHER ";
     private static final String DEFAULT_CYPHER_VERSION = "3.3";
+    private static final Clause[] NO_CLAUSES = new Clause[0];
     
     public static boolean isEmpty( String string )
     {
@@ -50,7 +62,7 @@ public class Query
         {
             throw new IllegalArgumentException( name + " may not be null" );
         }
-        if ( object.getClass().isArray() )
+        if ( object instanceof Object[] )
         {
             Object[] array = (Object[]) object;
             for ( Object obj : array )
@@ -79,6 +91,21 @@ public class Query
         }
     }
 
+    /**
+     * Parameters that a query binds by itself can not be set to another value by the caller.
+     *
+     * @param bound the parameters bound by the query
+     * @param name  the name of the parameter that is set
+     * @param value the value it is set to
+     */
+    public static void checkNotBound( Map<String, Object> bound, String name, Object value )
+    {
+        if ( bound.containsKey( name ) && !Objects.deepEquals( bound.get( name ), value ) )
+        {
+            throw new IllegalArgumentException( "Parameter " + name + " is already bound to an IN list of the query" );
+        }
+    }
+
     public static void checkEmpty( String[] strings, String name )
     {
         for ( String string : strings )
@@ -90,42 +117,222 @@ public class Query
         }
     }
 
-    private final ArrayList<Clause> clauses;
+    public static boolean iterableEquals( Iterable<?> first, Iterable<?> second )
+    {
+        if ( first == second )
+        {
+            return true;
+        }
+        if ( first == null || second == null )
+        {
+            return false;
+        }
+
+        Iterator<?> firstIterator = first.iterator();
+        Iterator<?> secondIterator = second.iterator();
+        while ( firstIterator.hasNext() && secondIterator.hasNext() )
+        {
+            if ( !Objects.equals( firstIterator.next(), secondIterator.next() ) )
+            {
+                return false;
+            }
+        }
+        return !firstIterator.hasNext() && !secondIterator.hasNext();
+    }
+
+    public static int iterableHashCode( Iterable<?> iterable )
+    {
+        if ( iterable == null )
+        {
+            return 0;
+        }
+
+        int result = 1;
+        for ( Object element : iterable )
+        {
+            result = 31 * result + Objects.hashCode( element );
+        }
+        return result;
+    }
+
+    /**
+     * Clauses are kept in a persistent list, newest first. Nodes are never modified once created,
+     * so cloning or extending a query is O(1) and the result shares all existing clauses with the
+     * original. A query that is no longer modified can be shared between threads and extended
+     * concurrently with {@link #with(Clause)}.
+     */
+    private static final class ClauseNode
+            implements Serializable
+    {
+        private final Clause clause;
+        private final ClauseNode previous;
+        private final int size;
+
+        // The bound IN lists of the query ending with this node, by parameter name
+        private final Map<String, InCollection> boundLists;
+
+        /**
+         * Resolve the parameter names of the bound IN lists of the clause against those of the previous
+         * clauses, so that the clause that is kept renders the same names however it is rendered.
+         */
+        private ClauseNode( Clause clause, ClauseNode previous )
+        {
+            Map<String, InCollection> lists = previous == null ? Collections.<String, InCollection>emptyMap() :
+                    previous.boundLists;
+            Map<String, InCollection> taken = new LinkedHashMap<String, InCollection>( lists );
+            this.clause = InCollection.resolveNames( clause, taken );
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+            this.boundLists = taken.size() == lists.size() ? lists : Collections.unmodifiableMap( taken );
+        }
+    }
+
+    private ClauseNode last;
 
     public void add( Clause clause )
+    {
+        last = append( last, clause );
+    }
+
+    /**
+     * Create a new query with the given clause added, leaving this query unchanged.
+     * This takes constant time, as the new query shares all existing clauses with this one.
+     *
+     * @param clause
+     * @return the extended query
+     */
+    public Query with( Clause clause )
+    {
+        checkNull( clause, "Clause" );
+        return new Query( append( last, clause ) );
+    }
+
+    private static ClauseNode append( ClauseNode last, Clause clause )
     {
         // Check if we should merge to consecutive WHERE clauses
-        if ( !clauses.isEmpty() && clause instanceof WhereClause )
+        if ( last != null && clause instanceof WhereClause && last.clause instanceof WhereClause )
         {
-            WhereClause previousWhere = lastClause(WhereClause.class);
-            if ( previousWhere != null )
-            {
-                previousWhere.mergeWith( (WhereClause) clause );
-                return;
-            }
+            return new ClauseNode( ( (WhereClause) last.clause ).merge( (WhereClause) clause ), last.previous );
         }
 
-        clauses.add( clause );
+        return new ClauseNode( clause, last );
+    }
+
+    /**
+     * Replace the last clause of this query. Clauses may be shared with other queries,
+     * so a clause must be replaced by a modified copy rather than changed in place.
+     *
+     * @param clause
+     */
+    public void replaceLastClause( Clause clause )
+    {
+        checkNull( clause, "Clause" );
+        if ( last == null )
+        {
+            throw new IllegalStateException( "Query has no clauses" );
+        }
+        last = new ClauseNode( clause, last.previous );
     }
 
     public  <T extends Clause> T lastClause(Class<T> type) {
-        Clause clause = clauses.get(clauses.size() - 1);
+        Clause clause = last == null ? null : last.clause;
         return type.isInstance(clause) ? type.cast(clause) : null;
     }
 
-    public void asString( StringBuilder builder )
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            for ( Clause clause : clauses() )
+            {
+                clause.accept( visitor );
+            }
+        }
+    }
+
+    /**
+     * Get the parameters that this query binds by itself, which are the values of IN lists
+     * that are too large to be rendered inline.
+     *
+     * @return a new map of parameter names to values
+     */
+    public Map<String, Object> getParameters()
+    {
+        Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+        if ( last != null )
+        {
+            for ( Map.Entry<String, InCollection> list : last.boundLists.entrySet() )
+            {
+                parameters.put( list.getKey(), list.getValue().getValues() );
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Get the clauses of this query, in order.
+     *
+     * @return an unmodifiable list of clauses
+     */
+    public List<Clause> getClauses()
     {
-        asString(builder, DEFAULT_CYPHER_VERSION);
+        return Collections.unmodifiableList( Arrays.asList( clauses() ) );
     }
-    
+
+    private Clause[] clauses()
+    {
+        if ( last == null )
+        {
+            return NO_CLAUSES;
+        }
+
+        Clause[] clauses = new Clause[last.size];
+        for ( ClauseNode node = last; node != null; node = node.previous )
+        {
+            clauses[node.size - 1] = node.clause;
+        }
+        return clauses;
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        asString( appendable, DEFAULT_CYPHER_VERSION );
+    }
+
     public void asString( StringBuilder builder, String cypherVersion )
     {
-        builder.append( QUERY_PREFIX );
-        builder.append( cypherVersion );
+        try
+        {
+            asString( (Appendable) builder, cypherVersion );
+        }
+        catch ( IOException e )
+        {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Render this query clause by clause into the given Appendable, without
+     * building the whole statement in memory first. A Writer should be buffered,
+     * and a CharBuffer must have enough remaining space for the statement.
+     *
+     * @param appendable
+     * @param cypherVersion
+     * @throws IOException if the appendable fails to accept the output
+     */
+    public void asString( Appendable appendable, String cypherVersion )
+            throws IOException
+    {
+        appendable.append( QUERY_PREFIX );
+        appendable.append( cypherVersion );
 
-        for ( Clause clause : clauses )
+        for ( Clause clause : clauses() )
         {
-            clause.asString( builder );
+            clause.asString( appendable );
         }
 
 /*
@@ -146,26 +353,147 @@ public class Query
 
     public Query()
     {
-        this( new ArrayList<Clause>() );
+        this( null );
     }
 
-    private Query( ArrayList<Clause> clauses )
+    private Query( ClauseNode last )
     {
-        this.clauses = clauses;
+        this.last = last;
     }
 
     @Override
     public Object clone()
             throws CloneNotSupportedException
     {
-        return new Query( (ArrayList<Clause>) clauses.clone() );
+        return new Query( last );
+    }
+
+    /**
+     * Compute a stable 64 bit hash of the shape of this query. Literal values, including SKIP and
+     * LIMIT counts, are masked and parameter names are replaced by the order in which they first
+     * appear, so queries that only differ in their values or parameter names have the same
+     * fingerprint. The query is rendered into an Appendable that hashes each character as it is
+     * written, so the text of the query is never held in memory as a whole.
+     * <p/>
+     * Useful as a low cardinality key for caches, metrics and slow query aggregation.
+     *
+     * @return the fingerprint
+     */
+    public long fingerprint()
+    {
+        FingerprintAppendable fingerprint = new FingerprintAppendable();
+        try
+        {
+            // Literals are written as generated parameters, which the fingerprint then normalizes
+            asString( new ParameterizingAppendable( fingerprint, "p" ) );
+        }
+        catch ( IOException e )
+        {
+            // FingerprintAppendable never throws IOException
+            throw new UncheckedIOException( e );
+        }
+        return fingerprint.getFingerprint();
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        int length = QUERY_PREFIX.length() + DEFAULT_CYPHER_VERSION.length();
+        for ( Clause clause : clauses() )
+        {
+            length += clause.estimatedLength();
+        }
+        return length;
+    }
+
+    /**
+     * Stream this query to a Writer.
+     *
+     * @param writer
+     * @throws IOException if the writer fails
+     */
+    public void writeTo( Writer writer )
+            throws IOException
+    {
+        asString( writer );
+    }
+
+    /**
+     * Render this query into a CharBuffer.
+     *
+     * @param buffer
+     * @throws java.nio.BufferOverflowException if the buffer has insufficient remaining space
+     */
+    public void writeTo( CharBuffer buffer )
+    {
+        try
+        {
+            asString( buffer );
+        }
+        catch ( IOException e )
+        {
+            // CharBuffer never throws IOException
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Render this query as UTF-8 straight into a ByteBuffer, which may be a direct buffer.
+     * This avoids creating the intermediate String and byte array of toString().getBytes().
+     *
+     * @param buffer
+     * @throws java.nio.BufferOverflowException if the buffer has insufficient remaining space
+     */
+    public void writeTo( ByteBuffer buffer )
+    {
+        Utf8ByteBufferAppendable appendable = new Utf8ByteBufferAppendable( buffer );
+        try
+        {
+            asString( appendable );
+        }
+        catch ( IOException e )
+        {
+            // Utf8ByteBufferAppendable never throws IOException
+            throw new UncheckedIOException( e );
+        }
+        appendable.flush();
     }
 
     @Override
     public String toString()
     {
-        StringBuilder builder = new StringBuilder();
-        asString( builder );
-        return builder.toString();
+        StringBuilder builder = StringBuilderPool.acquire();
+        builder.ensureCapacity( estimatedLength() );
+        try
+        {
+            asString( builder );
+            return builder.toString();
+        }
+        finally
+        {
+            StringBuilderPool.release( builder );
+        }
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        Query that = (Query) o;
+        return Arrays.equals( clauses(), that.clauses() );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode( clauses() );
     }
 }
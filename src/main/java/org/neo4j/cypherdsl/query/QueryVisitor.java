@@ -0,0 +1,108 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import org.neo4j.cypherdsl.AsString;
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.Literal;
+import org.neo4j.cypherdsl.Parameter;
+import org.neo4j.cypherdsl.Path;
+import org.neo4j.cypherdsl.PathRelationship;
+import org.neo4j.cypherdsl.expression.StartExpression;
+import org.neo4j.cypherdsl.query.clause.Clause;
+
+/**
+ * Visitor over the clauses and expressions of a query. Call accept() on a Query, Clause
+ * or expression to walk it depth first, in the order the parts are rendered.
+ * <p/>
+ * The visit methods for composite parts return whether the children of that part should be
+ * visited. All methods do nothing and continue by default, so implementations only override
+ * what they are interested in. Parts without a dedicated method are passed to visitOther().
+ */
+public interface QueryVisitor
+{
+    default boolean visit( Query query )
+    {
+        return true;
+    }
+
+    default boolean visit( Clause clause )
+    {
+        return true;
+    }
+
+    default boolean visit( Value value )
+    {
+        return true;
+    }
+
+    default boolean visit( Operator operator )
+    {
+        return true;
+    }
+
+    default boolean visit( FunctionExpression function )
+    {
+        return true;
+    }
+
+    default boolean visit( Expressions expressions )
+    {
+        return true;
+    }
+
+    default boolean visit( Path path )
+    {
+        return true;
+    }
+
+    default boolean visit( PathRelationship relationship )
+    {
+        return true;
+    }
+
+    default boolean visit( StartExpression startExpression )
+    {
+        return true;
+    }
+
+    default void visit( Identifier identifier )
+    {
+    }
+
+    default void visit( Literal literal )
+    {
+    }
+
+    default void visit( Parameter parameter )
+    {
+    }
+
+    /**
+     * Called for all other parts of the query, such as collections, property maps and
+     * label lists.
+     *
+     * @param part
+     * @return true if the children of the part should be visited
+     */
+    default boolean visitOther( AsString part )
+    {
+        return true;
+    }
+}
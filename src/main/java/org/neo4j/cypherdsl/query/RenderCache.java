@@ -0,0 +1,195 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of rendered queries. Queries are looked up by structure rather than identity,
+ * so two threads that build the same query independently share one rendered string. Clauses and expressions
+ * cache their hash codes, so a lookup only hashes the parts that have not been hashed before, and comparing
+ * the query with a cached one stops at the first part whose cached hash code differs.
+ * <p/>
+ * Literal values are part of the structure, so queries that differ only in their literals are separate
+ * entries. Pass varying values as parameters, or use {@link CompiledQuery#parameterize(Query, java.util.Map)},
+ * for queries that are rendered many times with different values.
+ * <p/>
+ * The cache is split into segments that each evict their least recently used entry when full. Cached
+ * queries are copied on insertion, but the clauses themselves are shared, so a query should not be
+ * modified after it has been rendered through the cache.
+ */
+public class RenderCache
+{
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RenderCache( int maximumSize )
+    {
+        if ( maximumSize < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum size must be at least one" );
+        }
+
+        int segmentCount = Math.min( MAX_SEGMENTS, maximumSize );
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        segments = new Segment[segmentCount];
+        for ( int i = 0; i < segmentCount; i++ )
+        {
+            segments[i] = new Segment( segmentSize );
+        }
+    }
+
+    /**
+     * Get the rendered form of the given query, rendering and caching it if an equal query has not been
+     * rendered before.
+     *
+     * @param query
+     * @return
+     */
+    public String render( Query query )
+    {
+        Query.checkNull( query, "Query" );
+
+        // Hash the query structure once and reuse it for segment selection, lookup and insertion
+        int hash = query.hashCode();
+        Segment segment = segments[Math.floorMod( hash ^ (hash >>> 16), segments.length )];
+        String rendered;
+        synchronized ( segment )
+        {
+            rendered = segment.get( new Key( query, hash ) );
+        }
+
+        if ( rendered != null )
+        {
+            hits.increment();
+            return rendered;
+        }
+
+        misses.increment();
+        rendered = query.toString();
+        Query copy;
+        try
+        {
+            copy = (Query) query.clone();
+        }
+        catch ( CloneNotSupportedException e )
+        {
+            throw new IllegalStateException( "Query was not cloneable" );
+        }
+
+        synchronized ( segment )
+        {
+            segment.put( new Key( copy, hash ), rendered );
+        }
+        return rendered;
+    }
+
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for ( Segment segment : segments )
+        {
+            synchronized ( segment )
+            {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear()
+    {
+        for ( Segment segment : segments )
+        {
+            synchronized ( segment )
+            {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Key
+    {
+        private final Query query;
+        private final int hash;
+
+        private Key( Query query, int hash )
+        {
+            this.query = query;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( !(o instanceof Key) )
+            {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return hash == that.hash && query.equals( that.query );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    private static class Segment
+            extends LinkedHashMap<Key, String>
+    {
+        private final int maximumSize;
+
+        private Segment( int maximumSize )
+        {
+            super( 16, 0.75f, true );
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Key, String> eldest )
+        {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+/**
+ * Per-thread pool of StringBuilders for rendering. A builder is handed out at most once
+ * at a time, so nested renders on the same thread simply get a fresh builder.
+ */
+public final class StringBuilderPool
+{
+    /**
+     * Builders that grew beyond this capacity are dropped instead of being kept alive by the pool.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> pool = new ThreadLocal<StringBuilder>();
+
+    private StringBuilderPool()
+    {
+    }
+
+    /**
+     * Take an empty builder from the pool, or create one if none is available.
+     *
+     * @return an empty builder
+     */
+    public static StringBuilder acquire()
+    {
+        StringBuilder builder = pool.get();
+        if ( builder == null )
+        {
+            return new StringBuilder();
+        }
+        pool.set( null );
+        builder.setLength( 0 );
+        return builder;
+    }
+
+    /**
+     * Return a builder to the pool. The builder must not be used afterwards.
+     *
+     * @param builder
+     */
+    public static void release( StringBuilder builder )
+    {
+        if ( builder.capacity() <= MAX_RETAINED_CAPACITY )
+        {
+            pool.set( builder );
+        }
+    }
+}
@@ -18,6 +18,9 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import org.neo4j.cypherdsl.expression.Expression;
 
 /**
@@ -36,9 +39,38 @@ public class SuffixFunctionExpression
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        expression.asString( appendable );
+        appendable.append( name );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visitOther( this ) )
+        {
+            expression.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return expression.estimatedLength() + name.length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        SuffixFunctionExpression that = (SuffixFunctionExpression) other;
+        return name.equals( that.name ) && expression.equals( that.expression );
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        expression.asString( builder );
-        builder.append( name );
+        return Objects.hash( name, expression );
     }
 }
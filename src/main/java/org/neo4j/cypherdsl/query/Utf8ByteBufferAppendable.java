@@ -0,0 +1,145 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Appendable that encodes characters as UTF-8 straight into a ByteBuffer, so that rendering
+ * a query for the wire does not go through an intermediate String and byte array.
+ * Unpaired surrogates are encoded as '?', like String.getBytes does.
+ */
+final class Utf8ByteBufferAppendable
+        implements Appendable
+{
+    private final ByteBuffer buffer;
+    private char highSurrogate;
+
+    Utf8ByteBufferAppendable( ByteBuffer buffer )
+    {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public Appendable append( CharSequence csq )
+    {
+        return append( csq, 0, csq.length() );
+    }
+
+    @Override
+    public Appendable append( CharSequence csq, int start, int end )
+    {
+        int i = start;
+        if ( highSurrogate == 0 )
+        {
+            // Fast path for the ASCII keywords, identifiers and punctuation that make up most queries
+            if ( buffer.hasArray() )
+            {
+                byte[] array = buffer.array();
+                int position = buffer.arrayOffset() + buffer.position();
+                int limit = Math.min( end, start + buffer.remaining() );
+                for ( ; i < limit; i++ )
+                {
+                    char ch = csq.charAt( i );
+                    if ( ch >= 0x80 )
+                    {
+                        break;
+                    }
+                    array[position++] = (byte) ch;
+                }
+                buffer.position( position - buffer.arrayOffset() );
+            }
+            else
+            {
+                for ( ; i < end; i++ )
+                {
+                    char ch = csq.charAt( i );
+                    if ( ch >= 0x80 )
+                    {
+                        break;
+                    }
+                    buffer.put( (byte) ch );
+                }
+            }
+        }
+
+        for ( ; i < end; i++ )
+        {
+            append( csq.charAt( i ) );
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append( char ch )
+    {
+        if ( highSurrogate != 0 )
+        {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if ( Character.isLowSurrogate( ch ) )
+            {
+                int codePoint = Character.toCodePoint( high, ch );
+                buffer.put( (byte) ( 0xF0 | ( codePoint >> 18 ) ) );
+                buffer.put( (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) ) );
+                buffer.put( (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) ) );
+                buffer.put( (byte) ( 0x80 | ( codePoint & 0x3F ) ) );
+                return this;
+            }
+            buffer.put( (byte) '?' );
+        }
+
+        if ( ch < 0x80 )
+        {
+            buffer.put( (byte) ch );
+        }
+        else if ( ch < 0x800 )
+        {
+            buffer.put( (byte) ( 0xC0 | ( ch >> 6 ) ) );
+            buffer.put( (byte) ( 0x80 | ( ch & 0x3F ) ) );
+        }
+        else if ( Character.isHighSurrogate( ch ) )
+        {
+            highSurrogate = ch;
+        }
+        else if ( Character.isLowSurrogate( ch ) )
+        {
+            buffer.put( (byte) '?' );
+        }
+        else
+        {
+            buffer.put( (byte) ( 0xE0 | ( ch >> 12 ) ) );
+            buffer.put( (byte) ( 0x80 | ( ( ch >> 6 ) & 0x3F ) ) );
+            buffer.put( (byte) ( 0x80 | ( ch & 0x3F ) ) );
+        }
+        return this;
+    }
+
+    /**
+     * Write out a trailing unpaired high surrogate, if any.
+     */
+    void flush()
+    {
+        if ( highSurrogate != 0 )
+        {
+            highSurrogate = 0;
+            buffer.put( (byte) '?' );
+        }
+    }
+}
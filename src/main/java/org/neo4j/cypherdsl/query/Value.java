@@ -18,6 +18,10 @@
  */
 package org.neo4j.cypherdsl.query;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
 import static org.neo4j.cypherdsl.CypherQuery.literal;
 
 import org.neo4j.cypherdsl.expression.BooleanExpression;
@@ -275,13 +279,207 @@ public class Value
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        Value[] spine = chain( false );
+        int last = spine.length - 1;
+        for ( int i = 0; i < last; i++ )
+        {
+            spine[i].appendBeforeLeft( appendable );
+        }
+
+        Value bottom = spine[last];
+        Expression left = bottom.leftOperand();
+        if ( left == null )
+        {
+            if ( bottom.operator != null )
+            {
+                bottom.operator.asString( appendable );
+            }
+            bottom.value.asString( appendable );
+        }
+        else
+        {
+            bottom.appendBeforeLeft( appendable );
+            left.asString( appendable );
+            bottom.appendAfterLeft( appendable );
+        }
+
+        for ( int i = last - 1; i >= 0; i-- )
+        {
+            spine[i].appendAfterLeft( appendable );
+        }
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( chained() == null )
+        {
+            if ( visitor.visit( this ) )
+            {
+                if ( operator != null )
+                {
+                    operator.accept( visitor );
+                }
+                value.accept( visitor );
+            }
+            return;
+        }
+
+        // Walk down the chain with a loop, and visit the rest of each link on the way back up
+        Value[] spine = chain( false );
+        int last = spine.length - 1;
+        boolean[] visitRest = new boolean[last];
+        int depth = 0;
+        for (; depth < last; depth++ )
+        {
+            Value link = spine[depth];
+            if ( !visitor.visit( link ) )
+            {
+                break;
+            }
+            if ( link.operator != null )
+            {
+                // The right operand is visited even if the operator is skipped
+                visitRest[depth] = true;
+                if ( !visitor.visit( link.operator ) )
+                {
+                    break;
+                }
+            }
+            else
+            {
+                visitRest[depth] = visitor.visit( (Expressions) link.value );
+                if ( !visitRest[depth] )
+                {
+                    break;
+                }
+            }
+        }
+        if ( depth == last )
+        {
+            spine[last].accept( visitor );
+        }
+        for ( int i = Math.min( depth, last - 1 ); i >= 0; i-- )
+        {
+            if ( visitRest[i] )
+            {
+                spine[i].acceptRest( visitor );
+            }
+        }
+    }
+
+    /**
+     * Visit the parts of this link of a chain that come after the value it extends.
+     */
+    private void acceptRest( QueryVisitor visitor )
     {
         if ( operator != null )
         {
-            operator.asString( builder );
+            value.accept( visitor );
+        }
+        else
+        {
+            Expression[] terms = ( (Expressions) value ).expressions;
+            for ( int i = 1; i < terms.length; i++ )
+            {
+                terms[i].accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        Value[] spine = chain( false );
+        int last = spine.length - 1;
+        Value bottom = spine[last];
+        Expression left = bottom.leftOperand();
+        int length = left == null ?
+                ( bottom.operator != null ? bottom.operator.estimatedLength() : 0 ) + bottom.value.estimatedLength() :
+                left.estimatedLength() + bottom.estimatedLengthAroundLeft();
+        for ( int i = last - 1; i >= 0; i-- )
+        {
+            length += spine[i].estimatedLengthAroundLeft();
+        }
+        return length;
+    }
+
+    /**
+     * Values built in a loop, like a.add(b).add(c)... or a.and(b).or(c)..., nest to the left. Such a value
+     * is written as what comes before its left operand, the left operand, and what comes after it, so that
+     * a chain can be written with a loop instead of one recursive call per link, which would overflow the
+     * stack for very long chains.
+     *
+     * @return the left operand this value is written around, or null if it is not written that way
+     */
+    protected Expression leftOperand()
+    {
+        return getClass() == Value.class && operator != null ? operator.left : null;
+    }
+
+    /**
+     * Write what comes before the {@link #leftOperand()}.
+     */
+    protected void appendBeforeLeft( Appendable appendable )
+            throws IOException
+    {
+    }
+
+    /**
+     * Write what comes after the {@link #leftOperand()}.
+     */
+    protected void appendAfterLeft( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( operator.operator );
+        value.asString( appendable );
+    }
+
+    /**
+     * @return the estimated length of what is written before and after the {@link #leftOperand()}
+     */
+    protected int estimatedLengthAroundLeft()
+    {
+        return operator.operator.length() + value.estimatedLength();
+    }
+
+    /**
+     * Parts that combine expressions, like and() and or(), resolve the parameter names of the bound IN
+     * lists of their terms when they are created, and may keep the result to save walking them again.
+     *
+     * @return the bound IN lists of this value by parameter name, or null if they are not known
+     */
+    protected Map<String, InCollection> boundLists()
+    {
+        return null;
+    }
+
+    /**
+     * Resolve the parameter names of the bound IN lists of the given terms, see {@link InCollection}.
+     *
+     * @param terms
+     * @param lists the lists by parameter name, to which the lists of the terms are added
+     * @return the terms, with renamed copies of the terms whose lists had to be renamed
+     */
+    protected static <T extends Expression> T[] resolveNames( T[] terms, Map<String, InCollection> lists )
+    {
+        T[] resolved = terms;
+        for ( int i = 0; i < terms.length; i++ )
+        {
+            T term = InCollection.resolveNames( terms[i], lists );
+            if ( term != terms[i] )
+            {
+                if ( resolved == terms )
+                {
+                    resolved = terms.clone();
+                }
+                resolved[i] = term;
+            }
         }
-        value.asString( builder );
+        return resolved;
     }
 
     @Override
@@ -289,4 +487,106 @@ public class Value
     {
         return value.toString();
     }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        // Compare chains link by link with a loop, like they are rendered
+        Value left = this;
+        Value right = (Value) other;
+        while (true)
+        {
+            Value nextLeft = left.chained();
+            Value nextRight = right.chained();
+            if ( nextLeft == null || nextRight == null )
+            {
+                return Objects.equals( left.operator, right.operator ) && left.value.equals( right.value );
+            }
+            if ( !left.equalLink( right ) )
+            {
+                return false;
+            }
+            if ( nextLeft == nextRight )
+            {
+                return true;
+            }
+            if ( nextLeft.getClass() != nextRight.getClass() || nextLeft.hashCode() != nextRight.hashCode() )
+            {
+                return false;
+            }
+            left = nextLeft;
+            right = nextRight;
+        }
+    }
+
+    /**
+     * Compare the parts of two links of a chain, except for the values they extend.
+     */
+    private boolean equalLink( Value that )
+    {
+        if ( operator != null || that.operator != null )
+        {
+            return operator != null && that.operator != null && operator.operator.equals( that.operator.operator ) &&
+                    value.equals( that.value );
+        }
+
+        Expressions terms = (Expressions) value;
+        Expressions thatTerms = (Expressions) that.value;
+        if ( terms.expressions.length != thatTerms.expressions.length || !terms.separator.equals( thatTerms.separator ) )
+        {
+            return false;
+        }
+        for ( int i = 1; i < terms.expressions.length; i++ )
+        {
+            if ( !terms.expressions[i].equals( thatTerms.expressions[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        // Hash the chain below this value from the bottom up, so that each link finds the hash code of the
+        // value it extends already cached instead of recursing down the rest of the chain
+        Value[] spine = chain( true );
+        for ( int i = spine.length - 1; i > 0; i-- )
+        {
+            spine[i].hashCode();
+        }
+        return Objects.hash( operator, value );
+    }
+
+    /**
+     * @return the value that this value extends on the left in a chain, which may be of another kind,
+     * or null if this value does not extend one
+     */
+    private Value chained()
+    {
+        Expression left = leftOperand();
+        return left instanceof Value && ( (Value) left ).leftOperand() != null ? (Value) left : null;
+    }
+
+    /**
+     * @param toHashed whether to stop at the first value with a cached hash code
+     * @return this value followed by the values it extends, one link of the chain at a time
+     */
+    private Value[] chain( boolean toHashed )
+    {
+        int length = 1;
+        for ( Value node = chained(); node != null; node = toHashed && node.hasHashCode() ? null : node.chained() )
+        {
+            length++;
+        }
+
+        Value[] spine = new Value[length];
+        spine[0] = this;
+        for ( int i = 1; i < length; i++ )
+        {
+            spine[i] = spine[i - 1].chained();
+        }
+        return spine;
+    }
 }
@@ -18,37 +18,78 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
-import java.io.Serializable;
+import java.io.IOException;
 import java.util.List;
 
+import org.neo4j.cypherdsl.query.AbstractQueryPart;
 import org.neo4j.cypherdsl.AsString;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * Base class for all clauses
  */
 public abstract class Clause
-        implements AsString, Serializable, Cloneable
+        extends AbstractQueryPart
+        implements AsString, Cloneable
 {
-    protected void clauseAsString( StringBuilder builder, String name, List<? extends AsString> asStringList,
+    protected void clauseAsString( Appendable appendable, String name, List<? extends AsString> asStringList,
                                    String separator )
+            throws IOException
     {
         if ( !asStringList.isEmpty() )
         {
-            if ( builder.length() > 0 )
+            if ( !isEmptyBuilder( appendable ) )
             {
-                builder.append( ' ' );
+                appendable.append( ' ' );
             }
-            builder.append( name ).append( ' ' );
+            appendable.append( name ).append( ' ' );
 
             for ( int i = 0; i < asStringList.size(); i++ )
             {
                 AsString asString = asStringList.get( i );
                 if ( i > 0 )
                 {
-                    builder.append( separator );
+                    appendable.append( separator );
                 }
-                asString.asString( builder );
+                asString.asString( appendable );
             }
         }
     }
+
+    protected int clauseEstimatedLength( String name, List<? extends AsString> asStringList, String separator )
+    {
+        if ( asStringList.isEmpty() )
+        {
+            return 0;
+        }
+
+        int length = 2 + name.length() + separator.length() * ( asStringList.size() - 1 );
+        for ( int i = 0; i < asStringList.size(); i++ )
+        {
+            length += asStringList.get( i ).estimatedLength();
+        }
+        return length;
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        visitor.visit( this );
+    }
+
+    protected void clauseAccept( QueryVisitor visitor, List<? extends AsString> asStringList )
+    {
+        if ( visitor.visit( this ) )
+        {
+            for ( int i = 0; i < asStringList.size(); i++ )
+            {
+                asStringList.get( i ).accept( visitor );
+            }
+        }
+    }
+
+    private static boolean isEmptyBuilder( Appendable appendable )
+    {
+        return appendable instanceof StringBuilder && ( (StringBuilder) appendable ).length() == 0;
+    }
 }
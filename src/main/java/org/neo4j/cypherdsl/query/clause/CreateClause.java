@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.PathExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * CREATE clause
@@ -39,8 +41,34 @@ public class CreateClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "CREATE", expressions, "," );
+        clauseAsString( appendable, "CREATE", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "CREATE", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        CreateClause that = (CreateClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.PathExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * CREATE UNIQUE clause
@@ -39,8 +41,34 @@ public class CreateUniqueClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "CREATE UNIQUE", expressions, "," );
+        clauseAsString( appendable, "CREATE UNIQUE", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "CREATE UNIQUE", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        CreateUniqueClause that = (CreateUniqueClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
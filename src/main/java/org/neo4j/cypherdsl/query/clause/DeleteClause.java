@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.ReferenceExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * CREATE clause
@@ -39,8 +41,34 @@ public class DeleteClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "DELETE", expressions, "," );
+        clauseAsString( appendable, "DELETE", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "DELETE", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        DeleteClause that = (DeleteClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 import org.neo4j.cypherdsl.AsString;
 import org.neo4j.cypherdsl.Identifier;
@@ -30,6 +32,7 @@ import org.neo4j.cypherdsl.expression.ReferenceExpression;
 import org.neo4j.cypherdsl.expression.SetExpression;
 import org.neo4j.cypherdsl.grammar.ForEachStatement;
 import org.neo4j.cypherdsl.grammar.ForEachStatements;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * FOR EACH clause
@@ -102,29 +105,76 @@ public class ForEachClause
         return new ForEachStatement( add( statement ) );
     }
 
+    /**
+     * Create a new FOREACH clause with the given statement added, leaving this clause unchanged.
+     *
+     * @param clause
+     * @return the extended clause
+     */
     public ForEachClause add( AsString clause )
     {
-        forEachStatements.add( clause );
-        return this;
+        ForEachClause extended = new ForEachClause( id, in );
+        extended.forEachStatements.addAll( forEachStatements );
+        extended.forEachStatements.add( clause );
+        return extended;
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        builder.append( " FOREACH(" );
-        id.asString( builder );
-        builder.append( " in " );
-        in.asString( builder );
-        builder.append( "|" );
+        appendable.append( " FOREACH(" );
+        id.asString( appendable );
+        appendable.append( " in " );
+        in.asString( appendable );
+        appendable.append( "|" );
 
         String comma = "";
         for ( AsString forEachStatement : forEachStatements )
         {
-            builder.append( comma );
-            forEachStatement.asString( builder );
+            appendable.append( comma );
+            forEachStatement.asString( appendable );
             comma = ",";
         }
 
-        builder.append( ')' );
+        appendable.append( ')' );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            id.accept( visitor );
+            in.accept( visitor );
+            for ( int i = 0; i < forEachStatements.size(); i++ )
+            {
+                forEachStatements.get( i ).accept( visitor );
+            }
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        int length = 14 + id.estimatedLength() + in.estimatedLength();
+        for ( AsString forEachStatement : forEachStatements )
+        {
+            length += forEachStatement.estimatedLength() + 1;
+        }
+        return length;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        ForEachClause that = (ForEachClause) other;
+        return id.equals( that.id ) && in.equals( that.in ) && forEachStatements.equals( that.forEachStatements );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( id, in, forEachStatements );
     }
 }
@@ -18,6 +18,10 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
+
+import org.neo4j.cypherdsl.query.ParameterizingAppendable;
+
 /**
  * LIMIT clause
  */
@@ -32,8 +36,37 @@ public class LimitClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( " LIMIT " );
+        if ( appendable instanceof ParameterizingAppendable )
+        {
+            // Like other literals, so queries that only differ in paging share their text and fingerprint
+            ( (ParameterizingAppendable) appendable ).appendParameter( limit );
+        }
+        else
+        {
+            appendable.append( String.valueOf( limit ) );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 7 + String.valueOf( limit ).length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        LimitClause that = (LimitClause) other;
+        return limit == that.limit;
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( " LIMIT " ).append( limit );
+        return limit;
     }
 }
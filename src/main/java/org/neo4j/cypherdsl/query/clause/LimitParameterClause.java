@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
+
 /**
  * LIMIT clause
  */
@@ -31,9 +33,37 @@ public class LimitParameterClause
         this.limit = limit;
     }
 
+    /**
+     * @return the name of the parameter that holds the LIMIT count
+     */
+    public String getParameterName()
+    {
+        return limit;
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( " LIMIT {" ).append( limit ).append( "}" );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 9 + limit.length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        LimitParameterClause that = (LimitParameterClause) other;
+        return limit.equals( that.limit );
+    }
+
     @Override
-    public void asString( StringBuilder builder )
+    protected int computeHashCode()
     {
-        builder.append( " LIMIT {" ).append( limit ).append( "}" );
+        return limit.hashCode();
     }
 }
@@ -18,9 +18,12 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Objects;
 
 import org.neo4j.cypherdsl.expression.PathExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * MATCH clause
@@ -40,13 +43,58 @@ public class MatchClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         String name = (optional ? "OPTIONAL " : "") + "MATCH";
-        clauseAsString( builder, name, expressions, "," );
+        clauseAsString( appendable, name, expressions, "," );
     }
 
-    public void optional() {
-        this.optional = true;
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return ( optional ? 9 : 0 ) + clauseEstimatedLength( "MATCH", expressions, "," );
+    }
+
+    /**
+     * Make this clause render as OPTIONAL MATCH. This changes the clause in place, and with it every
+     * query that shares it.
+     *
+     * @deprecated use {@link #asOptional()}, which leaves this clause unchanged
+     */
+    @Deprecated
+    public void optional()
+    {
+        optional = true;
+        resetHashCode();
+    }
+
+    /**
+     * @return a copy of this clause that renders as OPTIONAL MATCH
+     */
+    public MatchClause asOptional()
+    {
+        MatchClause clause = new MatchClause( expressions );
+        clause.optional = true;
+        return clause;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        MatchClause that = (MatchClause) other;
+        return expressions.equals( that.expressions ) && optional == that.optional;
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( expressions, optional );
     }
 }
@@ -19,7 +19,9 @@
 package org.neo4j.cypherdsl.query.clause;
 
 import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -39,11 +41,37 @@ public class OnCreateClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         String name = " ON CREATE";
-        builder.append(name);
-        clauseAsString( builder, "SET", expressions, "," );
+        appendable.append(name);
+        clauseAsString( appendable, "SET", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 10 + clauseEstimatedLength( "SET", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        OnCreateClause that = (OnCreateClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
 
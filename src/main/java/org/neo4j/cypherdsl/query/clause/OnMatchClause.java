@@ -19,7 +19,9 @@
 package org.neo4j.cypherdsl.query.clause;
 
 import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -39,10 +41,36 @@ public class OnMatchClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
         String name = " ON MATCH";
-        builder.append(name);
-        clauseAsString( builder, "SET", expressions, "," );
+        appendable.append(name);
+        clauseAsString( appendable, "SET", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 9 + clauseEstimatedLength( "SET", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        OnMatchClause that = (OnMatchClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -19,7 +19,9 @@
 package org.neo4j.cypherdsl.query.clause;
 
 import org.neo4j.cypherdsl.expression.PathExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -39,8 +41,34 @@ public class OptionalMatchClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "OPTIONAL MATCH", expressions, "," );
+        clauseAsString( appendable, "OPTIONAL MATCH", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "OPTIONAL MATCH", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        OptionalMatchClause that = (OptionalMatchClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
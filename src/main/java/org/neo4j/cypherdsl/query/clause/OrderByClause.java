@@ -18,10 +18,12 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.Expression;
 import org.neo4j.cypherdsl.query.OrderByExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * ORDER BY clause
@@ -48,8 +50,34 @@ public class OrderByClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "ORDER BY", expressions, "," );
+        clauseAsString( appendable, "ORDER BY", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "ORDER BY", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        OrderByClause that = (OrderByClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -19,7 +19,9 @@
 package org.neo4j.cypherdsl.query.clause;
 
 import org.neo4j.cypherdsl.expression.RemoveExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -39,8 +41,34 @@ public class RemoveClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "REMOVE", expressions, "," );
+        clauseAsString( appendable, "REMOVE", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "REMOVE", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        RemoveClause that = (RemoveClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.Expression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * RETURN clause
@@ -39,8 +41,34 @@ public class ReturnClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "RETURN", expressions, "," );
+        clauseAsString( appendable, "RETURN", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "RETURN", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        ReturnClause that = (ReturnClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
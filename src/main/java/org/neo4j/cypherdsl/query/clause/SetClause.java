@@ -18,10 +18,12 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.SetProperty;
 import org.neo4j.cypherdsl.expression.SetExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * SET clause
@@ -40,8 +42,34 @@ public class SetClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "SET", expressions, "," );
+        clauseAsString( appendable, "SET", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "SET", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        SetClause that = (SetClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
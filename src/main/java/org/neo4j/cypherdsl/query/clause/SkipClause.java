@@ -18,6 +18,10 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
+
+import org.neo4j.cypherdsl.query.ParameterizingAppendable;
+
 /**
  * SKIP clause
  */
@@ -32,8 +36,37 @@ public class SkipClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( " SKIP " );
+        if ( appendable instanceof ParameterizingAppendable )
+        {
+            // Like other literals, so queries that only differ in paging share their text and fingerprint
+            ( (ParameterizingAppendable) appendable ).appendParameter( skip );
+        }
+        else
+        {
+            appendable.append( String.valueOf( skip ) );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 6 + String.valueOf( skip ).length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        SkipClause that = (SkipClause) other;
+        return skip == that.skip;
+    }
+
+    @Override
+    protected int computeHashCode()
     {
-        builder.append( " SKIP " ).append( skip );
+        return skip;
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
+
 /**
  * SKIP clause
  */
@@ -31,9 +33,37 @@ public class SkipParameterClause
         this.skip = skip;
     }
 
+    /**
+     * @return the name of the parameter that holds the SKIP count
+     */
+    public String getParameterName()
+    {
+        return skip;
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        appendable.append( " SKIP {" ).append( skip ).append( "}" );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 8 + skip.length();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        SkipParameterClause that = (SkipParameterClause) other;
+        return skip.equals( that.skip );
+    }
+
     @Override
-    public void asString( StringBuilder builder )
+    protected int computeHashCode()
     {
-        builder.append( " SKIP {" ).append( skip ).append( "}" );
+        return skip.hashCode();
     }
 }
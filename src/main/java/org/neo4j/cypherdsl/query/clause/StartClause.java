@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.StartExpression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * START clause
@@ -39,8 +41,34 @@ public class StartClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "START", expressions, "," );
+        clauseAsString( appendable, "START", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "START", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        StartClause that = (StartClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
+
 /**
  * UNION clause
  */
@@ -26,13 +28,52 @@ public class UnionClause extends Clause
     private boolean all;
 
     @Override
-    public void asString(StringBuilder builder)
+    public void asString(Appendable appendable)
+            throws IOException
     {
         String name = " UNION" + (all ? " ALL" : "");
-        builder.append( name );
+        appendable.append( name );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return all ? 10 : 6;
     }
 
-    public void all() {
-        this.all = true;
+    /**
+     * Make this clause render as UNION ALL. This changes the clause in place, and with it every
+     * query that shares it.
+     *
+     * @deprecated use {@link #asAll()}, which leaves this clause unchanged
+     */
+    @Deprecated
+    public void all()
+    {
+        all = true;
+        resetHashCode();
+    }
+
+    /**
+     * @return a copy of this clause that renders as UNION ALL
+     */
+    public UnionClause asAll()
+    {
+        UnionClause clause = new UnionClause();
+        clause.all = true;
+        return clause;
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        UnionClause that = (UnionClause) other;
+        return all == that.all;
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return all ? 1 : 0;
     }
 }
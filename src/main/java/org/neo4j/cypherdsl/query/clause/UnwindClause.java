@@ -0,0 +1,81 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.query.clause;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Objects;
+
+import org.neo4j.cypherdsl.Identifier;
+import org.neo4j.cypherdsl.expression.Expression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
+
+/**
+ * UNWIND clause
+ */
+public class UnwindClause
+        extends Clause
+{
+    private final Expression expression;
+    private final Identifier identifier;
+
+    public UnwindClause( Expression expression, Identifier identifier )
+    {
+        this.expression = expression;
+        this.identifier = identifier;
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        clauseAsString( appendable, "UNWIND", Collections.singletonList( expression ), "" );
+        appendable.append( " AS " );
+        identifier.asString( appendable );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        if ( visitor.visit( this ) )
+        {
+            expression.accept( visitor );
+            identifier.accept( visitor );
+        }
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return 12 + expression.estimatedLength() + identifier.estimatedLength();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        UnwindClause that = (UnwindClause) other;
+        return expression.equals( that.expression ) && identifier.equals( that.identifier );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return Objects.hash( expression, identifier );
+    }
+}
@@ -18,9 +18,12 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.query.PredicateSimplifier;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * WHERE clause
@@ -28,6 +31,10 @@ import org.neo4j.cypherdsl.expression.BooleanExpression;
 public class WhereClause
         extends Clause
 {
+    /**
+     * @deprecated clauses are shared between queries, so the expressions should not be changed
+     */
+    @Deprecated
     public final ArrayList<BooleanExpression> expressions = new ArrayList<BooleanExpression>();
 
     public WhereClause( BooleanExpression expression )
@@ -35,17 +42,70 @@ public class WhereClause
         expressions.add( expression );
     }
 
+    private WhereClause()
+    {
+    }
+
+    @Override
+    public void asString( Appendable appendable )
+            throws IOException
+    {
+        clauseAsString( appendable, "WHERE", expressions, " AND " );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
     @Override
-    public void asString( StringBuilder builder )
+    public int estimatedLength()
     {
-        clauseAsString( builder, "WHERE", expressions, " AND " );
+        return clauseEstimatedLength( "WHERE", expressions, " AND " );
     }
 
+    /**
+     * Create a new WHERE clause with the expressions of this clause followed by those of the given
+     * clause, leaving both unchanged.
+     *
+     * @param clause
+     * @return the merged clause
+     */
+    public WhereClause merge( WhereClause clause )
+    {
+        WhereClause merged = new WhereClause();
+        merged.expressions.addAll( expressions );
+        merged.expressions.addAll( clause.expressions );
+        PredicateSimplifier.simplifyConjuncts( merged.expressions );
+        return merged;
+    }
+
+    /**
+     * Add the expressions of the given clause to this one. This changes the clause in place, and with it
+     * every query that shares it.
+     *
+     * @param clause
+     * @deprecated use {@link #merge(WhereClause)}, which leaves both clauses unchanged
+     */
+    @Deprecated
     public void mergeWith( WhereClause clause )
     {
-        for ( BooleanExpression expression : clause.expressions )
-        {
-            expressions.add( expression );
-        }
+        expressions.addAll( clause.expressions );
+        PredicateSimplifier.simplifyConjuncts( expressions );
+        resetHashCode();
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        WhereClause that = (WhereClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
@@ -18,9 +18,11 @@
  */
 package org.neo4j.cypherdsl.query.clause;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.neo4j.cypherdsl.expression.Expression;
+import org.neo4j.cypherdsl.query.QueryVisitor;
 
 /**
  * WITH clause
@@ -39,8 +41,34 @@ public class WithClause
     }
 
     @Override
-    public void asString( StringBuilder builder )
+    public void asString( Appendable appendable )
+            throws IOException
     {
-        clauseAsString( builder, "WITH", expressions, "," );
+        clauseAsString( appendable, "WITH", expressions, "," );
+    }
+
+    @Override
+    public void accept( QueryVisitor visitor )
+    {
+        clauseAccept( visitor, expressions );
+    }
+
+    @Override
+    public int estimatedLength()
+    {
+        return clauseEstimatedLength( "WITH", expressions, "," );
+    }
+
+    @Override
+    protected boolean equalParts( Object other )
+    {
+        WithClause that = (WithClause) other;
+        return expressions.equals( that.expressions );
+    }
+
+    @Override
+    protected int computeHashCode()
+    {
+        return expressions.hashCode();
     }
 }
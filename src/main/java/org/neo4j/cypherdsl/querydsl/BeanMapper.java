@@ -0,0 +1,523 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.querydsl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps result rows to instances of a class with public fields, by setting each field from the column
+ * with the same name. The fields and constructor are resolved into MethodHandles once per class, and the
+ * columns are bound to fields once per set of column names, so mapping a row does no reflective lookups.
+ * Primitive fields are set from the row's Number or Boolean values without boxing them again, and
+ * numbers are converted to the field's type, so an int field can be read from a Long column.
+ */
+public final class BeanMapper<T>
+{
+    private static final ClassValue<BeanMapper<?>> MAPPERS = new ClassValue<BeanMapper<?>>()
+    {
+        @Override
+        protected BeanMapper<?> computeValue( Class<?> type )
+        {
+            return new BeanMapper<Object>( type );
+        }
+    };
+
+    /**
+     * Results with more distinct sets of columns than this are still mapped, but their columns are bound per row.
+     */
+    private static final int MAX_SHAPES = 64;
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Map<String, Setter> setters = new HashMap<String, Setter>();
+    private final Map<Set<String>, Shape> shapes = new ConcurrentHashMap<Set<String>, Shape>();
+
+    private BeanMapper( Class<?> type )
+    {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try
+        {
+            Constructor<?> noArguments = type.getDeclaredConstructor();
+            noArguments.setAccessible( true );
+            constructor = lookup.unreflectConstructor( noArguments ).asType( MethodType.methodType( Object.class ) );
+            for ( Field field : type.getFields() )
+            {
+                if ( !Modifier.isStatic( field.getModifiers() ) && !Modifier.isFinal( field.getModifiers() ) )
+                {
+                    // Public fields of a class that is not public still need this to be set
+                    field.setAccessible( true );
+                    setters.put( field.getName(), Setter.of( field, lookup.unreflectSetter( field ) ) );
+                }
+            }
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new IllegalArgumentException( type.getName() + " needs a no-argument constructor", e );
+        }
+    }
+
+    /**
+     * Get the mapper for a class, which is created once and then shared.
+     *
+     * @param type a class with a no-argument constructor
+     * @return
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <T> BeanMapper<T> of( Class<T> type )
+    {
+        return (BeanMapper<T>) MAPPERS.get( type );
+    }
+
+    /**
+     * Create an instance and set its fields from the row. Columns without a matching field are
+     * ignored, and null values leave the field at its default.
+     *
+     * @param row
+     * @return
+     */
+    @SuppressWarnings( "unchecked" )
+    public T map( Map<String, Object> row )
+    {
+        Shape shape = shapes.get( row.keySet() );
+        if ( shape == null )
+        {
+            shape = shape( row.keySet() );
+            if ( shapes.size() < MAX_SHAPES )
+            {
+                shapes.put( new HashSet<String>( row.keySet() ), shape );
+            }
+        }
+
+        Object instance;
+        try
+        {
+            instance = constructor.invokeExact();
+        }
+        catch ( Throwable e )
+        {
+            throw new IllegalStateException( "Could not create " + type.getName(), e );
+        }
+
+        String[] columns = shape.columns;
+        Setter[] bound = shape.setters;
+        for ( int i = 0; i < columns.length; i++ )
+        {
+            Object value = row.get( columns[i] );
+            if ( value != null )
+            {
+                bound[i].set( instance, value );
+            }
+        }
+        return (T) instance;
+    }
+
+    private Shape shape( Set<String> columns )
+    {
+        List<String> names = new ArrayList<String>();
+        List<Setter> bound = new ArrayList<Setter>();
+        for ( String column : columns )
+        {
+            Setter setter = setters.get( column );
+            if ( setter != null )
+            {
+                names.add( column );
+                bound.add( setter );
+            }
+        }
+        return new Shape( names.toArray( new String[names.size()] ), bound.toArray( new Setter[bound.size()] ) );
+    }
+
+    /**
+     * The columns of one set of column names that have a field, and their setters.
+     */
+    private static final class Shape
+    {
+        private final String[] columns;
+        private final Setter[] setters;
+
+        private Shape( String[] columns, Setter[] setters )
+        {
+            this.columns = columns;
+            this.setters = setters;
+        }
+    }
+
+    /**
+     * Sets one field. There is a subclass per primitive type, so that each can invoke its handle
+     * with an exact, unboxed signature.
+     */
+    private abstract static class Setter
+    {
+        protected final Field field;
+        protected final MethodHandle handle;
+
+        private Setter( Field field, MethodHandle handle, Class<?> valueType )
+        {
+            this.field = field;
+            this.handle = handle.asType( MethodType.methodType( void.class, Object.class, valueType ) );
+        }
+
+        static Setter of( Field field, MethodHandle handle )
+        {
+            Class<?> type = field.getType();
+            if ( type == long.class )
+            {
+                return new LongSetter( field, handle );
+            }
+            if ( type == int.class )
+            {
+                return new IntSetter( field, handle );
+            }
+            if ( type == short.class )
+            {
+                return new ShortSetter( field, handle );
+            }
+            if ( type == byte.class )
+            {
+                return new ByteSetter( field, handle );
+            }
+            if ( type == double.class )
+            {
+                return new DoubleSetter( field, handle );
+            }
+            if ( type == float.class )
+            {
+                return new FloatSetter( field, handle );
+            }
+            if ( type == boolean.class )
+            {
+                return new BooleanSetter( field, handle );
+            }
+            if ( type == char.class )
+            {
+                return new CharSetter( field, handle );
+            }
+            return new ObjectSetter( field, handle );
+        }
+
+        abstract void set( Object instance, Object value );
+
+        protected IllegalArgumentException wrongType( Object value )
+        {
+            return new IllegalArgumentException( "Can not set " + field.getType().getSimpleName() + " field " +
+                    field.getName() + " from " + value.getClass().getSimpleName() + " " + value );
+        }
+
+        protected IllegalStateException failed( Throwable e )
+        {
+            return new IllegalStateException( "Could not set field " + field.getName(), e );
+        }
+    }
+
+    private static final class LongSetter
+            extends Setter
+    {
+        private LongSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, long.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).longValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class IntSetter
+            extends Setter
+    {
+        private IntSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, int.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).intValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class ShortSetter
+            extends Setter
+    {
+        private ShortSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, short.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).shortValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class ByteSetter
+            extends Setter
+    {
+        private ByteSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, byte.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).byteValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class DoubleSetter
+            extends Setter
+    {
+        private DoubleSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, double.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).doubleValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class FloatSetter
+            extends Setter
+    {
+        private FloatSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, float.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Number ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Number) value ).floatValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class BooleanSetter
+            extends Setter
+    {
+        private BooleanSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, boolean.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            if ( !( value instanceof Boolean ) )
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, ( (Boolean) value ).booleanValue() );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    private static final class CharSetter
+            extends Setter
+    {
+        private CharSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, char.class );
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            char c;
+            if ( value instanceof Character )
+            {
+                c = (Character) value;
+            }
+            else if ( value instanceof String && ( (String) value ).length() == 1 )
+            {
+                c = ( (String) value ).charAt( 0 );
+            }
+            else
+            {
+                throw wrongType( value );
+            }
+            try
+            {
+                handle.invokeExact( instance, c );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+    }
+
+    /**
+     * Sets reference fields. Numbers are converted when the field is a different boxed number type.
+     */
+    private static final class ObjectSetter
+            extends Setter
+    {
+        private final Class<?> type;
+
+        private ObjectSetter( Field field, MethodHandle handle )
+        {
+            super( field, handle, Object.class );
+            this.type = field.getType();
+        }
+
+        @Override
+        void set( Object instance, Object value )
+        {
+            Object converted = convert( value );
+            try
+            {
+                handle.invokeExact( instance, converted );
+            }
+            catch ( Throwable e )
+            {
+                throw failed( e );
+            }
+        }
+
+        private Object convert( Object value )
+        {
+            if ( type.isInstance( value ) )
+            {
+                return value;
+            }
+            if ( value instanceof Number )
+            {
+                Number number = (Number) value;
+                if ( type == Long.class )
+                {
+                    return number.longValue();
+                }
+                if ( type == Integer.class )
+                {
+                    return number.intValue();
+                }
+                if ( type == Double.class )
+                {
+                    return number.doubleValue();
+                }
+                if ( type == Float.class )
+                {
+                    return number.floatValue();
+                }
+                if ( type == Short.class )
+                {
+                    return number.shortValue();
+                }
+                if ( type == Byte.class )
+                {
+                    return number.byteValue();
+                }
+            }
+            throw wrongType( value );
+        }
+    }
+}
@@ -18,17 +18,16 @@
  */
 package org.neo4j.cypherdsl.querydsl;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import com.querydsl.core.types.Expression;
-import com.querydsl.core.types.Path;
-import com.querydsl.core.types.Projections;
-import com.querydsl.core.types.QBean; 
-import com.querydsl.core.types.dsl.PathBuilder;
 import org.neo4j.graphdb.Result;
 
 /**
@@ -37,39 +36,167 @@ import org.neo4j.graphdb.Result;
  */
 public class Projection<T>
 {
-    private final QBean<T> bean;
+    private final BeanMapper<T> mapper;
 
     public Projection( Class<T> targetClass )
     {
-        PathBuilder<T> entity = new PathBuilder<T>( targetClass, "entity" );
-        Field[] fields = targetClass.getFields();
-        Expression[] fieldExpressions = new Expression[fields.length];
-        for ( int i = 0; i < fields.length; i++ )
+        mapper = BeanMapper.of( targetClass );
+    }
+
+    public Iterable<T> iterable( Iterator<Map<String, Object>> result )
+    {
+        List<T> entities = new ArrayList<T>();
+        Iterator<T> iterator = iterator( result );
+        while ( iterator.hasNext() )
         {
-            fieldExpressions[i] = entity.getString( fields[i].getName() );
+            entities.add( iterator.next() );
         }
+        return entities;
+    }
+
+    /**
+     * Map the rows lazily, one at a time as they are read. Unlike iterable(), only the current row
+     * is held in memory, so results of any size can be read.
+     *
+     * @param result
+     * @return
+     */
+    public Iterator<T> iterator( final Iterator<Map<String, Object>> result )
+    {
+        return new Iterator<T>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return result.hasNext();
+            }
 
-        bean = Projections.fields( targetClass, fieldExpressions );
+            @Override
+            public T next()
+            {
+                return map( result.next() );
+            }
+        };
     }
 
+    /**
+     * Map the rows lazily, reading and mapping up to chunkSize rows at a time. At most one chunk
+     * of mapped instances is held in memory.
+     *
+     * @param result
+     * @param chunkSize
+     * @return
+     */
+    public Iterator<T> iterator( Iterator<Map<String, Object>> result, int chunkSize )
+    {
+        if ( chunkSize < 1 )
+        {
+            throw new IllegalArgumentException( "Chunk size must be at least 1" );
+        }
+        return new ChunkedIterator( result, chunkSize );
+    }
 
-    public Iterable<T> iterable( Iterator<Map<String, Object>> result )
+    /**
+     * Map the rows lazily as a Stream. Closing the stream closes the result, if it can be closed.
+     *
+     * @param result
+     * @return
+     */
+    public Stream<T> stream( Iterator<Map<String, Object>> result )
     {
-        List<T> entities = new ArrayList<T>();
+        return stream( result, iterator( result ) );
+    }
 
-        while (result.hasNext())
+    /**
+     * Map the rows lazily as a Stream, reading and mapping up to chunkSize rows at a time.
+     * Closing the stream closes the result, if it can be closed.
+     *
+     * @param result
+     * @param chunkSize
+     * @return
+     */
+    public Stream<T> stream( Iterator<Map<String, Object>> result, int chunkSize )
+    {
+        return stream( result, iterator( result, chunkSize ) );
+    }
+
+    private Stream<T> stream( final Iterator<Map<String, Object>> result, Iterator<T> iterator )
+    {
+        Stream<T> stream = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize( iterator, Spliterator.ORDERED | Spliterator.NONNULL ), false );
+        if ( result instanceof AutoCloseable )
+        {
+            stream = stream.onClose( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        ( (AutoCloseable) result ).close();
+                    }
+                    catch ( RuntimeException e )
+                    {
+                        throw e;
+                    }
+                    catch ( Exception e )
+                    {
+                        throw new IllegalStateException( "Could not close result", e );
+                    }
+                }
+            } );
+        }
+        return stream;
+    }
+
+    private T map( Map<String, Object> row )
+    {
+        return mapper.map( row );
+    }
+
+    private class ChunkedIterator
+            implements Iterator<T>
+    {
+        private final Iterator<Map<String, Object>> result;
+        private final int chunkSize;
+        private final List<T> chunk;
+        private int position;
+
+        private ChunkedIterator( Iterator<Map<String, Object>> result, int chunkSize )
+        {
+            this.result = result;
+            this.chunkSize = chunkSize;
+            this.chunk = new ArrayList<T>( chunkSize );
+        }
+
+        @Override
+        public boolean hasNext()
         {
-            Map<String, Object> row = result.next();
-            Object[] args = new Object[row.size()];
-            int idx = 0;
-            for ( Expression<?> expression : bean.getArgs() )
+            if ( position < chunk.size() )
             {
-                args[idx++] = row.get( ((Path) expression).getMetadata().getElement().toString() );
+                return true;
             }
 
-            entities.add( bean.newInstance( args ) );
+            // Reuse the chunk, so that mapped instances are released once they have been handed out
+            chunk.clear();
+            position = 0;
+            while ( chunk.size() < chunkSize && result.hasNext() )
+            {
+                chunk.add( map( result.next() ) );
+            }
+            return !chunk.isEmpty();
         }
 
-        return entities;
+        @Override
+        public T next()
+        {
+            if ( !hasNext() )
+            {
+                throw new NoSuchElementException();
+            }
+            T next = chunk.get( position );
+            chunk.set( position++, null );
+            return next;
+        }
     }
 }
@@ -0,0 +1,42 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl.result;
+
+/**
+ * Layout of the JSON written by {@link JSONSerializer}. The result is always a JSON array.
+ */
+public enum JSONFormat
+{
+    /**
+     * One object per row, with the column names as keys: [{"a":1,"b":2},{"a":3,"b":4}]
+     */
+    OBJECTS,
+
+    /**
+     * The column names once, followed by one array per row with the values in column order:
+     * [["a","b"],[1,2],[3,4]]
+     */
+    ROWS,
+
+    /**
+     * The column names once, followed by one array per column with the values in row order:
+     * [["a","b"],[1,3],[2,4]]. The whole result is buffered before the first column is written.
+     */
+    COLUMNS
+}
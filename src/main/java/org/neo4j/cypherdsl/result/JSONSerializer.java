@@ -18,78 +18,603 @@
  */
 package org.neo4j.cypherdsl.result;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.node.ArrayNode;
-import org.codehaus.jackson.node.ObjectNode;
+import org.codehaus.jackson.util.TokenBuffer;
+import org.neo4j.cypherdsl.query.Query;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
 
 /**
  * Serializer that converts Cypher execution results to JSON.
+ * <p/>
+ * Use the writeJSON methods for large results. They write each row as soon as it has been read and
+ * flush it, instead of building the whole result in memory first.
+ * <p/>
+ * Nodes are written as objects with their id in "_id" and their properties. Relationships also have
+ * "_type", "_start" and "_end", and paths are written as {"nodes":[...],"relationships":[...]}.
+ * Property values, including primitive arrays, lists and maps, are written as the matching JSON values.
+ * <p/>
+ * Rows are written as objects by default. See {@link JSONFormat} for the positional layouts, which
+ * write the column names only once.
  */
 public class JSONSerializer
 {
-    private final ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Writers for the exact classes of the values Neo4j returns, looked up once per value.
+     */
+    private static final Map<Class<?>, ValueWriter> WRITERS = new HashMap<Class<?>, ValueWriter>();
 
-    public ArrayNode toJSON( Iterator<Map<String, Object>> result )
+    /**
+     * Writers for any class, resolved once per class from WRITERS or the interfaces the class implements.
+     */
+    private static final ClassValue<ValueWriter> DISPATCH = new ClassValue<ValueWriter>()
+    {
+        @Override
+        protected ValueWriter computeValue( Class<?> type )
+        {
+            ValueWriter writer = WRITERS.get( type );
+            if ( writer != null )
+            {
+                return writer;
+            }
+            if ( Node.class.isAssignableFrom( type ) )
+            {
+                return NODE;
+            }
+            if ( Relationship.class.isAssignableFrom( type ) )
+            {
+                return RELATIONSHIP;
+            }
+            if ( Path.class.isAssignableFrom( type ) )
+            {
+                return PATH;
+            }
+            if ( Map.class.isAssignableFrom( type ) )
+            {
+                return MAP;
+            }
+            if ( Iterable.class.isAssignableFrom( type ) )
+            {
+                return ITERABLE;
+            }
+            if ( Object[].class.isAssignableFrom( type ) )
+            {
+                return OBJECT_ARRAY;
+            }
+            return UNKNOWN;
+        }
+    };
+
+    private static final ValueWriter NODE = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
+        {
+            Node node = (Node) value;
+            generator.writeStartObject();
+            generator.writeNumberField( "_id", node.getId() );
+            // With deduplication only the first occurrence of a node in a response has its properties
+            if ( writtenNodes == null || writtenNodes.add( node.getId() ) )
+            {
+                writeProperties( generator, node );
+            }
+            generator.writeEndObject();
+        }
+    };
+
+    private static final ValueWriter RELATIONSHIP = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
+        {
+            Relationship relationship = (Relationship) value;
+            generator.writeStartObject();
+            generator.writeNumberField( "_id", relationship.getId() );
+            generator.writeStringField( "_type", relationship.getType().name() );
+            generator.writeNumberField( "_start", relationship.getStartNode().getId() );
+            generator.writeNumberField( "_end", relationship.getEndNode().getId() );
+            writeProperties( generator, relationship );
+            generator.writeEndObject();
+        }
+    };
+
+    private static final ValueWriter PATH = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
+        {
+            Path path = (Path) value;
+            generator.writeStartObject();
+            generator.writeArrayFieldStart( "nodes" );
+            for ( Node node : path.nodes() )
+            {
+                NODE.write( generator, node, writtenNodes );
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart( "relationships" );
+            for ( Relationship relationship : path.relationships() )
+            {
+                RELATIONSHIP.write( generator, relationship, writtenNodes );
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    };
+
+    private static final ValueWriter MAP = new ValueWriter()
     {
-        ArrayNode root = mapper.createArrayNode();
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
+        {
+            generator.writeStartObject();
+            for ( Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet() )
+            {
+                generator.writeFieldName( String.valueOf( entry.getKey() ) );
+                writeValue( generator, entry.getValue(), writtenNodes );
+            }
+            generator.writeEndObject();
+        }
+    };
 
-        while (result.hasNext())
+    private static final ValueWriter ITERABLE = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
         {
-            Map<String, Object> row = result.next();
-            ObjectNode entry = root.objectNode();
+            generator.writeStartArray();
+            for ( Object element : (Iterable<?>) value )
+            {
+                writeValue( generator, element, writtenNodes );
+            }
+            generator.writeEndArray();
+        }
+    };
 
-            for ( Map.Entry<String, Object> stringObjectEntry : row.entrySet() )
+    private static final ValueWriter OBJECT_ARRAY = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException
+        {
+            generator.writeStartArray();
+            for ( Object element : (Object[]) value )
             {
-                if ( stringObjectEntry.getValue() instanceof Path )
+                writeValue( generator, element, writtenNodes );
+            }
+            generator.writeEndArray();
+        }
+    };
+
+    private static final ValueWriter UNKNOWN = new ValueWriter()
+    {
+        @Override
+        public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+        {
+            throw new IllegalArgumentException( "Unknown value type:" + value.getClass() );
+        }
+    };
+
+    static
+    {
+        WRITERS.put( String.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeString( (String) value );
+            }
+        } );
+        WRITERS.put( Character.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeString( value.toString() );
+            }
+        } );
+        WRITERS.put( Boolean.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeBoolean( (Boolean) value );
+            }
+        } );
+        WRITERS.put( Long.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeNumber( (Long) value );
+            }
+        } );
+        // Written as ints, so that toJSON() gives an IntNode for them, like it gives a LongNode for longs
+        ValueWriter integral = new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeNumber( ((Number) value).intValue() );
+            }
+        };
+        WRITERS.put( Integer.class, integral );
+        WRITERS.put( Short.class, integral );
+        WRITERS.put( Byte.class, integral );
+        WRITERS.put( Double.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeNumber( (Double) value );
+            }
+        } );
+        WRITERS.put( Float.class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeNumber( (Float) value );
+            }
+        } );
+
+        WRITERS.put( long[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( long element : (long[]) value )
                 {
-                    entry.put( stringObjectEntry.getKey(), stringObjectEntry.getValue().toString() );
+                    generator.writeNumber( element );
                 }
-                else if ( stringObjectEntry.getValue() instanceof Node )
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( int[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( int element : (int[]) value )
                 {
-                    Node node = (Node) stringObjectEntry.getValue();
-                    ObjectNode nodeNode = entry.objectNode();
-                    nodeNode.put( "_id", node.getId() );
-                    for ( String propertyName : node.getPropertyKeys() )
-                    {
-                        addProperty( nodeNode, propertyName, node.getProperty( propertyName ) );
-                    }
-                    entry.put( stringObjectEntry.getKey(), nodeNode );
+                    generator.writeNumber( element );
                 }
-                else
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( short[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( short element : (short[]) value )
                 {
-                    addProperty( entry, stringObjectEntry.getKey(), stringObjectEntry.getValue() );
+                    generator.writeNumber( element );
                 }
+                generator.writeEndArray();
             }
+        } );
+        WRITERS.put( byte[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                // Numbers rather than base64, since byte[] properties are arrays of numbers to Cypher
+                generator.writeStartArray();
+                for ( byte element : (byte[]) value )
+                {
+                    generator.writeNumber( element );
+                }
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( double[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( double element : (double[]) value )
+                {
+                    generator.writeNumber( element );
+                }
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( float[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( float element : (float[]) value )
+                {
+                    generator.writeNumber( element );
+                }
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( boolean[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( boolean element : (boolean[]) value )
+                {
+                    generator.writeBoolean( element );
+                }
+                generator.writeEndArray();
+            }
+        } );
+        WRITERS.put( char[].class, new ValueWriter()
+        {
+            @Override
+            public void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                    throws IOException
+            {
+                generator.writeStartArray();
+                for ( char element : (char[]) value )
+                {
+                    generator.writeString( String.valueOf( element ) );
+                }
+                generator.writeEndArray();
+            }
+        } );
+    }
 
-            root.add( entry );
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JSONFormat format;
+    private final boolean deduplicateNodes;
+
+    public JSONSerializer()
+    {
+        this( JSONFormat.OBJECTS, false );
+    }
+
+    /**
+     * @param deduplicateNodes if true, each node is written with its properties only the first time it
+     *                         occurs in a response, and as {"_id":id} after that. This keeps the output
+     *                         of queries where the same nodes occur on many rows small.
+     */
+    public JSONSerializer( boolean deduplicateNodes )
+    {
+        this( JSONFormat.OBJECTS, deduplicateNodes );
+    }
+
+    /**
+     * @param format           layout of the rows
+     * @param deduplicateNodes see {@link #JSONSerializer(boolean)}
+     */
+    public JSONSerializer( JSONFormat format, boolean deduplicateNodes )
+    {
+        Query.checkNull( format, "Format" );
+        this.format = format;
+        this.deduplicateNodes = deduplicateNodes;
+    }
+
+    public ArrayNode toJSON( Iterator<Map<String, Object>> result )
+    {
+        // Write through the same path as the streaming methods, and read the tokens back as a tree
+        TokenBuffer buffer = new TokenBuffer( mapper );
+        try
+        {
+            write( result, buffer, false );
+            return (ArrayNode) mapper.readTree( buffer.asParser() );
+        }
+        catch ( IOException e )
+        {
+            // TokenBuffer never throws IOException
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Write the result as a JSON array of row objects, encoded as UTF-8. Each row is flushed to the
+     * stream as soon as it has been written. The stream is not closed.
+     *
+     * @param result
+     * @param out
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeJSON( Iterator<Map<String, Object>> result, OutputStream out )
+            throws IOException
+    {
+        JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator( out, JsonEncoding.UTF8 );
+        generator.disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+        write( result, generator, true );
+        generator.close();
+    }
+
+    /**
+     * Write the result as a JSON array of row objects. Each row is flushed to the writer as soon as
+     * it has been written. The writer is not closed.
+     *
+     * @param result
+     * @param out
+     * @throws IOException if writing to the writer fails
+     */
+    public void writeJSON( Iterator<Map<String, Object>> result, Writer out )
+            throws IOException
+    {
+        JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator( out );
+        generator.disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+        write( result, generator, true );
+        generator.close();
+    }
+
+    private void write( Iterator<Map<String, Object>> result, JsonGenerator generator, boolean flushRows )
+            throws IOException
+    {
+        Set<Long> writtenNodes = deduplicateNodes ? new HashSet<Long>() : null;
+        generator.writeStartArray();
+        if ( format == JSONFormat.OBJECTS )
+        {
+            while (result.hasNext())
+            {
+                MAP.write( generator, result.next(), writtenNodes );
+                if ( flushRows )
+                {
+                    generator.flush();
+                }
+            }
+        }
+        else
+        {
+            writePositional( result, generator, flushRows, writtenNodes );
         }
-        return root;
+        generator.writeEndArray();
     }
 
-    private void addProperty( ObjectNode node, String name, Object value )
+    private void writePositional( Iterator<Map<String, Object>> result,
+                                  JsonGenerator generator,
+                                  boolean flushRows,
+                                  Set<Long> writtenNodes
+    )
+            throws IOException
     {
-        if ( value instanceof String )
+        // A Result knows its columns even if it has no rows, otherwise they are taken from the first row
+        Map<String, Object> row = result.hasNext() ? result.next() : null;
+        List<String> columns;
+        if ( result instanceof Result )
+        {
+            columns = ((Result) result).columns();
+        }
+        else if ( row != null )
+        {
+            columns = new ArrayList<String>( row.keySet() );
+        }
+        else
         {
-            node.put( name, value.toString() );
+            columns = Collections.emptyList();
         }
-        else if ( value instanceof Long )
+
+        generator.writeStartArray();
+        for ( String column : columns )
         {
-            Long number = (Long) value;
-            node.put( name, number );
+            generator.writeString( column );
         }
-        else if ( value instanceof Integer )
+        generator.writeEndArray();
+
+        if ( format == JSONFormat.ROWS )
         {
-            Integer number = (Integer) value;
-            node.put( name, number );
+            for (; row != null; row = result.hasNext() ? result.next() : null )
+            {
+                generator.writeStartArray();
+                for ( String column : columns )
+                {
+                    writeValue( generator, row.get( column ), writtenNodes );
+                }
+                generator.writeEndArray();
+                if ( flushRows )
+                {
+                    generator.flush();
+                }
+            }
         }
         else
         {
-            throw new IllegalArgumentException( "Unknown value type:" + value.getClass() );
+            // Keep the values until all rows are read, and write them column by column, so that with
+            // deduplication the first occurrence of a node in the output is the one with its properties
+            List<List<Object>> values = new ArrayList<List<Object>>( columns.size() );
+            for ( int i = 0; i < columns.size(); i++ )
+            {
+                values.add( new ArrayList<Object>() );
+            }
+            for (; row != null; row = result.hasNext() ? result.next() : null )
+            {
+                for ( int i = 0; i < columns.size(); i++ )
+                {
+                    values.get( i ).add( row.get( columns.get( i ) ) );
+                }
+            }
+            for ( List<Object> column : values )
+            {
+                generator.writeStartArray();
+                for ( Object value : column )
+                {
+                    writeValue( generator, value, writtenNodes );
+                }
+                generator.writeEndArray();
+                if ( flushRows )
+                {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private static void writeProperties( JsonGenerator generator, PropertyContainer container )
+            throws IOException
+    {
+        for ( Map.Entry<String, Object> property : container.getAllProperties().entrySet() )
+        {
+            generator.writeFieldName( property.getKey() );
+            // Property values are never entities, so there are no nodes to keep track of
+            writeValue( generator, property.getValue(), null );
         }
     }
+
+    private static void writeValue( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+            throws IOException
+    {
+        if ( value == null )
+        {
+            generator.writeNull();
+        }
+        else
+        {
+            DISPATCH.get( value.getClass() ).write( generator, value, writtenNodes );
+        }
+    }
+
+    /**
+     * Writes one value. writtenNodes holds the ids of the nodes already written in this response, or is
+     * null if nodes are not deduplicated.
+     */
+    private interface ValueWriter
+    {
+        void write( JsonGenerator generator, Object value, Set<Long> writtenNodes )
+                throws IOException;
+    }
 }
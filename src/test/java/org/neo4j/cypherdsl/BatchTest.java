@@ -0,0 +1,201 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.neo4j.cypherdsl.batch.BatchMerge;
+import org.neo4j.cypherdsl.batch.BatchRelationships;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+
+/**
+ * Tests for the batch writers.
+ */
+public class BatchTest
+        extends AbstractCypherTest
+{
+    @Test
+    public void testBatchMergeStatement()
+    {
+        BatchMerge merge = BatchMerge.label( "Person" ).key( "id" ).onCreate( "name", "age" ).onMatch( "name" );
+        assertQueryEquals( CYPHER + "UNWIND {batch} AS row MERGE (n:Person {id:row.id}) " +
+                "ON CREATE SET n.name=row.name,n.age=row.age ON MATCH SET n.name=row.name",
+                merge.statement().toString() );
+    }
+
+    @Test
+    public void testBatchMergeSplitsRows()
+    {
+        List<Object> rows = new ArrayList<Object>();
+        for ( int i = 0; i < 25; i++ )
+        {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put( "id", i );
+            row.put( "name", "Person " + i );
+            rows.add( row );
+        }
+        rows.add( new Person( 25, "Bean" ) );
+
+        List<ExecuteWithParameters> batches = list( BatchMerge.label( "Person" ).key( "id" ).onCreate( "name" ).
+                rowsPerBatch( 10 ).batches( rows ) );
+        assertEquals( 3, batches.size() );
+        assertSame( batches.get( 0 ).toString(), batches.get( 2 ).toString() );
+        assertEquals( 10, ( (List<?>) batches.get( 0 ).getParameters().get( "batch" ) ).size() );
+
+        List<?> last = (List<?>) batches.get( 2 ).getParameters().get( "batch" );
+        assertEquals( 6, last.size() );
+        assertEquals( "Bean", ( (Map<?, ?>) last.get( 5 ) ).get( "name" ) );
+
+        assertEquals( 26, list( BatchMerge.label( "Person" ).key( "id" ).bytesPerBatch( 1 ).batches( rows ) ).size() );
+    }
+
+    @Test
+    public void testBatchMergeReadsRowsPerBatch()
+    {
+        final int[] read = new int[1];
+        List<Map<String, Object>> rows = new AbstractList<Map<String, Object>>()
+        {
+            @Override
+            public Map<String, Object> get( int index )
+            {
+                read[0]++;
+                return Collections.<String, Object>singletonMap( "id", index );
+            }
+
+            @Override
+            public int size()
+            {
+                return 100;
+            }
+        };
+
+        Iterator<ExecuteWithParameters> batches = BatchMerge.label( "Person" ).key( "id" ).rowsPerBatch( 10 ).
+                batches( rows ).iterator();
+        assertEquals( 0, read[0] );
+        batches.next();
+        assertEquals( 10, read[0] );
+        batches.next();
+        assertEquals( 20, read[0] );
+    }
+
+    @Test
+    public void testBatchMergeReadsPublicFields()
+    {
+        Movie movie = new Movie();
+        movie.title = "The Matrix";
+        movie.year = 1999;
+
+        List<ExecuteWithParameters> batches = list( BatchMerge.label( "Movie" ).key( "title" ).onCreate( "year" ).
+                batches( Collections.singletonList( movie ) ) );
+        List<?> rows = (List<?>) batches.get( 0 ).getParameters().get( "batch" );
+        assertEquals( "The Matrix", ( (Map<?, ?>) rows.get( 0 ) ).get( "title" ) );
+        assertEquals( 1999, ( (Map<?, ?>) rows.get( 0 ) ).get( "year" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testBatchMergeRequiresKeys()
+    {
+        List<Object> rows = new ArrayList<Object>();
+        rows.add( new Person( null, "Anonymous" ) );
+        BatchMerge.label( "Person" ).key( "id" ).batches( rows ).iterator().next();
+    }
+
+    @Test
+    public void testBatchRelationshipsByKey()
+    {
+        BatchRelationships relationships = BatchRelationships.type( "WORKS_AT" ).
+                from( "Person", "id" ).to( "Company", "id" ).properties( "since" );
+        assertQueryEquals( CYPHER + "UNWIND {batch} AS row MATCH (a:Person {id:row.source}),(b:Company {id:row.target}) " +
+                "CREATE (a)-[r:WORKS_AT {since:row.since}]->(b)", relationships.statement().toString() );
+
+        List<ExecuteWithParameters> batches = list( relationships.rowsPerBatch( 2 ).batches( new Object[]{"p1", "p2", "p3"},
+                new Object[]{"c1", "c1", "c2"}, Collections.nCopies( 3, Collections.singletonMap( "since", 2010 ) ) ) );
+        assertEquals( 2, batches.size() );
+        Map<?, ?> row = (Map<?, ?>) ( (List<?>) batches.get( 1 ).getParameters().get( "batch" ) ).get( 0 );
+        assertEquals( "p3", row.get( "source" ) );
+        assertEquals( "c2", row.get( "target" ) );
+        assertEquals( 2010, row.get( "since" ) );
+    }
+
+    @Test
+    public void testBatchRelationshipsById()
+    {
+        BatchRelationships relationships = BatchRelationships.type( "KNOWS" ).properties( "weight" ).merge();
+        assertQueryEquals( CYPHER + "UNWIND {batch} AS row MATCH (a),(b) WHERE id(a)=row.source and id(b)=row.target " +
+                "MERGE (a)-[r:KNOWS]->(b) SET r.weight=row.weight", relationships.statement().toString() );
+        assertEquals( 1, list( BatchRelationships.type( "KNOWS" ).merge().
+                batches( new long[]{1, 2, 3}, new long[]{4, 5, 6} ) ).size() );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testBatchRelationshipsWithoutPropertyValues()
+    {
+        // Merging without the values would set the weight of existing relationships to null
+        BatchRelationships.type( "KNOWS" ).properties( "weight" ).merge().
+                batches( new long[]{1, 2, 3}, new long[]{4, 5, 6} );
+    }
+
+    private static List<ExecuteWithParameters> list( Iterable<ExecuteWithParameters> batches )
+    {
+        List<ExecuteWithParameters> list = new ArrayList<ExecuteWithParameters>();
+        for ( ExecuteWithParameters batch : batches )
+        {
+            list.add( batch );
+        }
+        return list;
+    }
+
+    public static class Movie
+    {
+        public String title;
+        public int year;
+    }
+
+    public static class Person
+    {
+        private final Integer id;
+        private final String name;
+
+        public Person( Integer id, String name )
+        {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Integer getId()
+        {
+            return id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.neo4j.cypherdsl.CypherQuery.collection;
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.literal;
+import static org.neo4j.cypherdsl.CypherQuery.match;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.param;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+
+/**
+ * Tests for compiling a query once and executing it with different parameters.
+ */
+public class CompiledQueryTest
+        extends AbstractCypherTest
+{
+    @Test
+    public void testCompiledQueryKeepsTextAndParameterNames()
+    {
+        Execute query = match( node( "n" ).label( "Person" ) ).
+                where( identifier( "n" ).string( "name" ).eq( param( "name" ) ).
+                        and( identifier( "n" ).number( "age" ).gt( param( "age" ) ) ) ).
+                returns( identifier( "n" ) ).
+                skip( "skip" ).
+                limit( "limit" );
+
+        CompiledQuery compiled = query.compile();
+
+        assertQueryEquals( CYPHER + "MATCH (n:Person) WHERE n.name={name} and n.age>{age} RETURN n SKIP {skip} " +
+                "LIMIT {limit}", compiled.toString() );
+        assertEquals( new LinkedHashSet<String>( Arrays.asList( "name", "age", "skip", "limit" ) ),
+                compiled.getParameterNames() );
+        assertSame( compiled, compiled.compile() );
+    }
+
+    @Test
+    public void testParametersDoNotChangeCompiledText()
+    {
+        CompiledQuery compiled = match( node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( param( "name" ) ) ).
+                returns( identifier( "n" ) ).compile();
+
+        ExecuteWithParameters first = compiled.parameter( "name", "Alice" );
+        ExecuteWithParameters second = compiled.parameter( "name", "Bob" );
+
+        assertEquals( compiled.toString(), first.toString() );
+        assertEquals( compiled.toString(), second.toString() );
+        assertEquals( "Alice", first.getParameters().get( "name" ) );
+        assertEquals( "Bob", second.getParameters().get( "name" ) );
+        assertSame( compiled, first.compile() );
+    }
+
+    @Test
+    public void testParameterNamesIgnoreLiteralsAndMaps()
+    {
+        CompiledQuery compiled = match( node( "n" ).values( CypherQuery.value( "name", "{notAParameter}" ) ) ).
+                where( identifier( "n" ).string( "title" ).eq( literal( "\"{quoted}\"" ) ).
+                        or( identifier( "n" ).string( "title" ).eq( param( "title" ) ) ) ).
+                returns( identifier( "n" ) ).compile();
+
+        assertEquals( new LinkedHashSet<String>( Arrays.asList( "title" ) ), compiled.getParameterNames() );
+    }
+
+    @Test
+    public void testParameterNamesComeFromTheQueryParts()
+    {
+        long[] ids = new long[100];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = i;
+        }
+        Execute query = match( node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).regexp( "\\\"{regexp}" ).
+                        and( identifier( "n" ).string( "title" ).eq( "\\{title}" ) ).
+                        and( identifier( "n" ).number( "id" ).in( ids ) ).
+                        and( identifier( "n" ).string( "name" ).eq( param( "name" ) ) ) ).
+                returns( identifier( "n" ) ).
+                limit( "limit" );
+
+        assertEquals( new LinkedHashSet<String>( Arrays.asList( "in_n_id", "name", "limit" ) ),
+                query.compile().getParameterNames() );
+        assertEquals( new LinkedHashSet<String>( Arrays.asList( "in_n_id", "name", "limit", "p0", "p1" ) ),
+                CompiledQuery.alreadyCompiled( query.parameterize() ).getParameterNames() );
+    }
+
+    @Test
+    public void testParameterizeExtractsLiterals()
+    {
+        ExecuteWithParameters first = match( node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Alice" ).
+                        and( identifier( "n" ).number( "age" ).in( collection( 30, 31, 32 ) ) ) ).
+                returns( identifier( "n" ) ).parameterize();
+        ExecuteWithParameters second = match( node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Bob" ).
+                        and( identifier( "n" ).number( "age" ).in( collection( 40 ) ) ) ).
+                returns( identifier( "n" ) ).parameterize();
+
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.name={p0} and n.age IN {p1} RETURN n", first.toString() );
+        assertEquals( first.toString(), second.toString() );
+        assertEquals( "Alice", first.getParameters().get( "p0" ) );
+        assertEquals( Arrays.asList( 30, 31, 32 ), first.getParameters().get( "p1" ) );
+        assertEquals( Arrays.asList( 40 ), second.getParameters().get( "p1" ) );
+    }
+
+    @Test
+    public void testParameterizeExtractsPaging()
+    {
+        ExecuteWithParameters query = match( node( "n" ) ).
+                returns( identifier( "n" ) ).
+                skip( 20 ).
+                limit( 10 ).
+                parameterize();
+
+        assertQueryEquals( CYPHER + "MATCH (n) RETURN n SKIP {p0} LIMIT {p1}", query.toString() );
+        assertEquals( 20, query.getParameters().get( "p0" ) );
+        assertEquals( 10, query.getParameters().get( "p1" ) );
+    }
+
+    @Test
+    public void testParameterizeAvoidsExistingParameterNames()
+    {
+        ExecuteWithParameters query = match( node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Alice" ).
+                        and( identifier( "n" ).number( "age" ).gt( param( "p0" ) ) ) ).
+                returns( identifier( "n" ) ).
+                parameter( "p0", 30 ).
+                parameterize();
+
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.name={p_0} and n.age>{p0} RETURN n", query.toString() );
+        assertEquals( "Alice", query.getParameters().get( "p_0" ) );
+        assertEquals( 30, query.getParameters().get( "p0" ) );
+    }
+}
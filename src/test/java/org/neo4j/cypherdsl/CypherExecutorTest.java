@@ -0,0 +1,288 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.cypherdsl.CypherQuery.count;
+import static org.neo4j.cypherdsl.CypherQuery.create;
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.match;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.param;
+import static org.neo4j.cypherdsl.CypherQuery.value;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.neo4j.cypherdsl.execution.AsyncCypherExecutor;
+import org.neo4j.cypherdsl.execution.CypherExecutor;
+import org.neo4j.cypherdsl.execution.ExecutionListener;
+import org.neo4j.cypherdsl.execution.QueryBackend;
+import org.neo4j.cypherdsl.execution.UnitOfWork;
+import org.neo4j.cypherdsl.grammar.Execute;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+/**
+ * Tests for running DSL queries through a CypherExecutor.
+ */
+public class CypherExecutorTest
+        extends AbstractCypherTest
+{
+    @Test
+    public void testExecuteWithParametersAndCache()
+    {
+        final List<String> executed = new ArrayList<String>();
+        CypherExecutor executor = new CypherExecutor( graphdb ).addListener( new ExecutionListener()
+        {
+            @Override
+            public void executed( String cypher, Map<String, Object> parameters, long renderNanos, long executeNanos )
+            {
+                assertTrue( renderNanos >= 0 && executeNanos >= 0 );
+                executed.add( cypher );
+            }
+        } );
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            executor.execute( create( node( "n" ).label( "Person" ).values( value( "id", param( "id" ) ) ) ).
+                    parameter( "id", i ) ).close();
+        }
+        assertEquals( 1, executor.getRenderCache().getMissCount() );
+        assertEquals( 2, executor.getRenderCache().getHitCount() );
+        assertEquals( 3, executed.size() );
+
+        Result result = executor.execute( match( node( "n" ).label( "Person" ) ).
+                where( identifier( "n" ).property( "id" ).in( 0, 2 ) ).
+                returns( count() ).compile() );
+        assertEquals( 2L, result.columnAs( "count(*)" ).next() );
+        result.close();
+    }
+
+    @Test
+    public void testUnitOfWork()
+    {
+        final CypherExecutor executor = new CypherExecutor( graphdb );
+        final Execute count = match( node( "n" ).label( "Person" ) ).returns( count() );
+
+        long created = executor.inTransaction( new UnitOfWork<Long>()
+        {
+            @Override
+            public Long execute( CypherExecutor executor )
+            {
+                assertTrue( executor.isInTransaction() );
+                executor.execute( create( node().label( "Person" ) ) ).close();
+                executor.execute( create( node().label( "Person" ) ) ).close();
+                try ( Result result = executor.execute( count ) )
+                {
+                    return (Long) result.columnAs( "count(*)" ).next();
+                }
+            }
+        } );
+
+        assertEquals( 2L, created );
+        assertFalse( executor.isInTransaction() );
+    }
+
+    @Test
+    public void testUnitOfWorkCommitsOrRollsBack()
+    {
+        // The per-test transaction of the other tests would hide whether the unit of work commits, and the
+        // shared database holds the lock on the default directory
+        GraphDatabaseService database = new TestGraphDatabaseFactory().
+                newImpermanentDatabase( new File( "target/test-data/unit-of-work-db" ) );
+        try
+        {
+            final CypherExecutor executor = new CypherExecutor( database );
+            final Execute count = match( node( "n" ).label( "Person" ) ).returns( count() );
+
+            executor.inTransaction( new UnitOfWork<Void>()
+            {
+                @Override
+                public Void execute( CypherExecutor executor )
+                {
+                    executor.execute( create( node().label( "Person" ) ) ).close();
+                    return executor.inTransaction( new UnitOfWork<Void>()
+                    {
+                        @Override
+                        public Void execute( CypherExecutor executor )
+                        {
+                            executor.execute( create( node().label( "Person" ) ) ).close();
+                            return null;
+                        }
+                    } );
+                }
+            } );
+            assertEquals( 2L, countRows( executor, count ) );
+
+            try
+            {
+                executor.inTransaction( new UnitOfWork<Void>()
+                {
+                    @Override
+                    public Void execute( CypherExecutor executor )
+                    {
+                        executor.execute( create( node().label( "Person" ) ) ).close();
+                        throw new IllegalStateException( "Rolled back" );
+                    }
+                } );
+                fail( "Unit of work did not throw" );
+            }
+            catch ( IllegalStateException e )
+            {
+                assertEquals( "Rolled back", e.getMessage() );
+            }
+            assertEquals( 2L, countRows( executor, count ) );
+            assertFalse( executor.isInTransaction() );
+        }
+        finally
+        {
+            database.shutdown();
+        }
+    }
+
+    private static long countRows( CypherExecutor executor, Execute query )
+    {
+        try ( Result result = executor.execute( query ) )
+        {
+            return (Long) result.columnAs( "count(*)" ).next();
+        }
+    }
+
+    @Test
+    public void testExecuteAsync()
+            throws Exception
+    {
+        final AtomicLong renderNanos = new AtomicLong();
+        CypherExecutor backend = new CypherExecutor( graphdb ).addListener( new ExecutionListener()
+        {
+            @Override
+            public void executed( String cypher, Map<String, Object> parameters, long render, long execute )
+            {
+                renderNanos.addAndGet( render );
+            }
+        } );
+        try ( AsyncCypherExecutor executor = new AsyncCypherExecutor( backend, 2, 4 ) )
+        {
+            List<CompletableFuture<List<Map<String, Object>>>> futures =
+                    new ArrayList<CompletableFuture<List<Map<String, Object>>>>();
+            for ( int i = 0; i < 10; i++ )
+            {
+                futures.add( executor.executeAsync( CypherQuery.unwind( param( "values" ), identifier( "x" ) ).
+                        returns( identifier( "x" ) ).parameter( "values", new long[]{i, i + 1} ) ) );
+            }
+            for ( int i = 0; i < 10; i++ )
+            {
+                List<Map<String, Object>> rows = futures.get( i ).get();
+                assertEquals( 2, rows.size() );
+                assertEquals( (long) i, rows.get( 0 ).get( "x" ) );
+            }
+            assertEquals( 1, backend.getRenderCache().getMissCount() );
+            assertEquals( 9, backend.getRenderCache().getHitCount() );
+            assertTrue( renderNanos.get() > 0 );
+        }
+    }
+
+    @Test
+    public void testRowsHoldPropertiesOfEntities()
+            throws Exception
+    {
+        CypherExecutor backend = new CypherExecutor( graphdb );
+        try ( AsyncCypherExecutor executor = new AsyncCypherExecutor( backend, 1, 1 ) )
+        {
+            // The transaction of the worker thread is closed once the future completes
+            Map<String, Object> row = executor.executeAsync(
+                    create( node( "a" ).values( value( "name", "Andres" ) ) ).returns( identifier( "a" ) ) ).get().get( 0 );
+            assertEquals( "Andres", ( (Map<?, ?>) row.get( "a" ) ).get( "name" ) );
+        }
+
+        Map<String, Object> row = backend.rows( "CREATE p=(a {name:'Andres'})-[r:KNOWS {since:2010}]->(b {name:'Emil'}) " +
+                "RETURN r, p, [a, b] AS people", Collections.<String, Object>emptyMap() ).get( 0 );
+        assertEquals( 2010L, ( (Map<?, ?>) row.get( "r" ) ).get( "since" ) );
+        List<?> path = (List<?>) row.get( "p" );
+        assertEquals( 3, path.size() );
+        assertEquals( "Emil", ( (Map<?, ?>) path.get( 2 ) ).get( "name" ) );
+        assertEquals( "Andres", ( (Map<?, ?>) ( (List<?>) row.get( "people" ) ).get( 0 ) ).get( "name" ) );
+    }
+
+    @Test
+    public void testCloseKeepsInterrupt()
+    {
+        AsyncCypherExecutor executor = new AsyncCypherExecutor( new CypherExecutor( graphdb ), 1, 1 );
+        Thread.currentThread().interrupt();
+        executor.close();
+        assertTrue( Thread.interrupted() );
+    }
+
+    @Test
+    public void testTryExecuteAsyncRejectsWhenFull()
+            throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch( 1 );
+        QueryBackend blocking = new QueryBackend()
+        {
+            @Override
+            public List<Map<String, Object>> rows( String cypher, Map<String, Object> parameters )
+            {
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new IllegalStateException( e );
+                }
+                return new ArrayList<Map<String, Object>>();
+            }
+        };
+
+        try ( AsyncCypherExecutor executor = new AsyncCypherExecutor( blocking, 1, 1 ) )
+        {
+            Execute query = match( node( "n" ) ).returns( identifier( "n" ) );
+            CompletableFuture<List<Map<String, Object>>> running = executor.tryExecuteAsync( query );
+            CompletableFuture<List<Map<String, Object>>> queued = executor.tryExecuteAsync( query );
+            CompletableFuture<List<Map<String, Object>>> rejected = executor.tryExecuteAsync( query );
+            try
+            {
+                rejected.get();
+                fail( "Query was accepted while the queue was full" );
+            }
+            catch ( ExecutionException e )
+            {
+                assertTrue( e.getCause() instanceof RejectedExecutionException );
+            }
+
+            release.countDown();
+            assertTrue( running.get().isEmpty() && queued.get().isEmpty() );
+        }
+    }
+}
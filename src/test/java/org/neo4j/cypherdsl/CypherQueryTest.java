@@ -36,8 +36,21 @@ import static org.neo4j.cypherdsl.CypherQuery.relationshipsById;
 import static org.neo4j.cypherdsl.CypherQuery.relationshipsByParameter;
 import static org.neo4j.cypherdsl.CypherQuery.start;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.QueryVisitor;
+import org.neo4j.cypherdsl.query.clause.Clause;
+import org.neo4j.cypherdsl.query.clause.ReturnClause;
 
 /**
  * Tests for all parts of the Cypher DSL.
@@ -204,4 +217,122 @@ public class CypherQueryTest extends AbstractCypherTest
         literal( "x\\x\"x" ).asString( builder );
         assertEquals( "\"x\\\\x\\\"x\"", builder.toString() );
     }
+
+    @Test
+    public void testStreamingRender()
+            throws IOException
+    {
+        Query query = start( nodesById( "n", 1 ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ).or( identifier( "n" ).number( "age" ).gt( 3 ) ) ).
+                returns( identifier( "n" ) ).
+                limit( 10 ).
+                toQuery();
+        String expected = query.toString();
+
+        StringWriter writer = new StringWriter();
+        query.writeTo( writer );
+        assertEquals( expected, writer.toString() );
+
+        CharBuffer buffer = CharBuffer.allocate( 256 );
+        query.writeTo( buffer );
+        buffer.flip();
+        assertEquals( expected, buffer.toString() );
+    }
+
+    @Test
+    public void testUtf8Render()
+    {
+        Query query = start( nodesById( "n", 1 ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tob\u00edas \u2603 \ud83d\ude00" ) ).
+                returns( identifier( "n" ) ).
+                toQuery();
+        byte[] expected = query.toString().getBytes( StandardCharsets.UTF_8 );
+
+        for ( ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate( 256 ), ByteBuffer.allocateDirect( 256 )} )
+        {
+            query.writeTo( buffer );
+            buffer.flip();
+            byte[] actual = new byte[buffer.remaining()];
+            buffer.get( actual );
+            Assert.assertTrue( Arrays.equals( expected, actual ) );
+        }
+    }
+
+    @Test
+    public void testEstimatedLength()
+    {
+        Query query = CypherQuery.match( CypherQuery.node( "n" ).label( "Person" ).out( "KNOWS" ).node( "m" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ).and( identifier( "m" ).string( "name" ).ne( "Anders" ) ) ).
+                returns( identifier( "m" ), identifier( "n" ).property( "name" ) ).
+                toQuery();
+        assertEquals( query.toString().length(), query.estimatedLength() );
+    }
+
+    @Test
+    public void testFingerprint()
+    {
+        long byLiteral = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ) ).
+                returns( identifier( "n" ) ).limit( 10 ).toQuery().fingerprint();
+        long byOtherLiteral = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Anders" ) ).
+                returns( identifier( "n" ) ).limit( 10 ).toQuery().fingerprint();
+        long byParameter = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( param( "name" ) ) ).
+                returns( identifier( "n" ) ).limit( 10 ).toQuery().fingerprint();
+        long byOtherParameter = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( param( "otherName" ) ) ).
+                returns( identifier( "n" ) ).limit( 10 ).toQuery().fingerprint();
+        long otherShape = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "title" ).eq( "Tobias" ) ).
+                returns( identifier( "n" ) ).limit( 10 ).toQuery().fingerprint();
+
+        long otherPage = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ) ).
+                returns( identifier( "n" ) ).skip( 20 ).limit( 20 ).toQuery().fingerprint();
+        long firstPage = CypherQuery.match( CypherQuery.node( "n" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ) ).
+                returns( identifier( "n" ) ).skip( 0 ).limit( 10 ).toQuery().fingerprint();
+
+        assertEquals( byLiteral, byOtherLiteral );
+        assertEquals( byParameter, byOtherParameter );
+        assertEquals( firstPage, otherPage );
+        Assert.assertNotEquals( byLiteral, otherShape );
+        Assert.assertNotEquals( byLiteral, firstPage );
+    }
+
+    @Test
+    public void testVisitor()
+    {
+        Query query = CypherQuery.match( CypherQuery.node( "n" ).out( "KNOWS" ).node( "m" ) ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ).or( identifier( "m" ).number( "age" ).gt( 3 ) ) ).
+                returns( identifier( "m" ) ).
+                toQuery();
+
+        final List<String> identifiers = new ArrayList<String>();
+        final List<Object> literals = new ArrayList<Object>();
+        query.accept( new QueryVisitor()
+        {
+            @Override
+            public boolean visit( Clause clause )
+            {
+                return !( clause instanceof ReturnClause );
+            }
+
+            @Override
+            public void visit( Identifier identifier )
+            {
+                identifiers.add( identifier.toString() );
+            }
+
+            @Override
+            public void visit( Literal literal )
+            {
+                literals.add( literal.getValue() );
+            }
+        } );
+
+        assertEquals( Arrays.asList( "n", "KNOWS", "m", "n", "name", "m", "age" ), identifiers );
+        assertEquals( Arrays.<Object>asList( "Tobias", 3 ), literals );
+    }
 }
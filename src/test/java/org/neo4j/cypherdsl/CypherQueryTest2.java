@@ -18,8 +18,35 @@
  */
 package org.neo4j.cypherdsl;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
 import org.junit.Test;
+import org.neo4j.cypherdsl.expression.BooleanExpression;
+import org.neo4j.cypherdsl.expression.NumericExpression;
+import org.neo4j.cypherdsl.grammar.ExecuteWithParameters;
+import org.neo4j.cypherdsl.grammar.ForEachStatement;
+import org.neo4j.cypherdsl.grammar.Match;
+import org.neo4j.cypherdsl.grammar.Where;
+import org.neo4j.cypherdsl.query.AbstractExpression;
+import org.neo4j.cypherdsl.query.CompiledQuery;
+import org.neo4j.cypherdsl.query.Expressions;
+import org.neo4j.cypherdsl.query.InCollection;
+import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.QueryVisitor;
+import org.neo4j.cypherdsl.query.RenderCache;
+import org.neo4j.cypherdsl.query.Value;
+import org.neo4j.cypherdsl.query.clause.LimitClause;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.neo4j.cypherdsl.CypherQuery.*;
 
 /**
@@ -89,6 +116,329 @@ public class CypherQueryTest2 extends AbstractCypherTest
                         toString() );
     }
 
+    @Test
+    public void testContinuedQueriesDoNotAffectBase()
+    {
+        Query base = match( node( "n" ) ).where( identifier( "n" ).number( "age" ).gt( 30 ) ).toQuery();
+        String baseText = base.toString();
+
+        String first = continueQuery( base, Where.class ).
+                where( identifier( "n" ).string( "name" ).eq( "Tobias" ) ).
+                returns( identifier( "n" ) ).toString();
+        String second = continueQuery( base, Match.class ).
+                match( node( "m" ) ).optional().
+                returns( identifier( "m" ) ).toString();
+        Query limited = base.with( new LimitClause( 1 ) );
+
+        assertEquals( baseText, base.toString() );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.age>30 AND n.name=\"Tobias\" RETURN n", first );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.age>30 OPTIONAL MATCH (m) RETURN m", second );
+        assertEquals( CYPHER + "MATCH (n) WHERE n.age>30 LIMIT 1", limited.toString() );
+
+        ForEachStatement statement = in( "x", identifier( "xs" ) ).create( node( "a" ) );
+        Query forEach = match( node( "n" ) ).forEach( statement ).toQuery();
+        String forEachText = forEach.toString();
+        int forEachHash = forEach.hashCode();
+        statement.create( node( "b" ) );
+        assertEquals( forEachText, forEach.toString() );
+        assertEquals( forEachHash, forEach.hashCode() );
+    }
+
+    @Test
+    public void testPartsThatOnlyWriteToStringBuilder()
+            throws IOException
+    {
+        // Written the way parts were before they could write to any Appendable
+        AbstractExpression star = new AbstractExpression()
+        {
+            @Override
+            public void asString( StringBuilder builder )
+            {
+                builder.append( "count(*)" );
+            }
+        };
+        Query query = match( node( "n" ) ).returns( new Value( star ) ).toQuery();
+        assertQueryEquals( CYPHER + "MATCH (n) RETURN count(*)", query.toString() );
+
+        StringWriter writer = new StringWriter();
+        query.writeTo( writer );
+        assertEquals( query.toString(), writer.toString() );
+    }
+
+    @Test
+    public void testSimplifyPredicates()
+    {
+        BooleanExpression a = identifier( "n" ).number( "a" ).gt( 1 );
+        BooleanExpression b = identifier( "n" ).number( "b" ).gt( 2 );
+        BooleanExpression c = identifier( "n" ).number( "c" ).gt( 3 );
+
+        assertEquals( "n.a>1 and n.b>2 and n.c>3", render( simplify( a.and( b ).and( c.and( a ) ).and( literal( true ) ) ) ) );
+        assertEquals( "n.a>1 and (n.b>2 or n.c>3)", render( simplify( a.and( b.or( c.or( b ) ) ) ) ) );
+        assertEquals( "false", render( simplify( a.and( b ).and( literal( false ) ) ) ) );
+        assertEquals( "n.a>1", render( simplify( a.or( literal( false ) ) ) ) );
+
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.a>1 AND n.b>2 RETURN n",
+                match( node( "n" ) ).where( a ).where( literal( true ) ).where( b.and( b ) ).where( a ).
+                        returns( identifier( "n" ) ).toString() );
+    }
+
+    private static String render( AsString asString )
+    {
+        StringBuilder builder = new StringBuilder();
+        asString.asString( builder );
+        return builder.toString();
+    }
+
+    @Test
+    public void testSimplifyLongChain()
+    {
+        BooleanExpression chain = identifier( "n" ).number( "a" ).eq( 0 );
+        for ( int i = 1; i < 10000; i++ )
+        {
+            chain = chain.or( identifier( "n" ).number( "a" ).eq( i % 100 ) );
+        }
+        assertEquals( 100, ( (Expressions) ( (Value) simplify( chain ) ).value ).expressions.length );
+    }
+
+    @Test
+    public void testRenderChains()
+    {
+        BooleanExpression a = identifier( "n" ).number( "a" ).gt( 1 );
+        BooleanExpression b = identifier( "n" ).number( "b" ).gt( 2 );
+        BooleanExpression c = identifier( "n" ).number( "c" ).gt( 3 );
+
+        assertEquals( "((n.a>1 and n.b>2) and n.c>3) and (n.a>1 or n.b>2)", render( a.and( b ).and( c ).and( a.or( b ) ) ) );
+        assertEquals( "n.a>1 or n.b>2 or (n.c>3 and n.a>1) or n.b>2", render( a.or( b ).or( c.and( a ) ).or( b ) ) );
+        assertEquals( "n.a+1-2*n.b", render( identifier( "n" ).number( "a" ).add( 1 ).subtract( 2 ).times( identifier( "n" ).number( "b" ) ) ) );
+    }
+
+    @Test
+    public void testRenderVeryLongChains()
+    {
+        NumericExpression sum = identifier( "n" ).number( "a" );
+        BooleanExpression or = identifier( "n" ).number( "a" ).eq( 0 );
+        for ( int i = 1; i <= 100000; i++ )
+        {
+            sum = sum.add( i );
+            or = or.or( identifier( "n" ).number( "a" ).eq( i ) );
+        }
+
+        assertEquals( "n.a+1+2+3", render( sum ).substring( 0, 9 ) );
+        assertTrue( sum.estimatedLength() > 0 && or.estimatedLength() > 0 );
+        assertEquals( "n.a=0 or n.a=1 or n.a=2", render( or ).substring( 0, 23 ) );
+    }
+
+    @Test
+    public void testVeryLongChainsInQueries()
+    {
+        Query[] queries = new Query[3];
+        for ( int q = 0; q < queries.length; q++ )
+        {
+            NumericExpression sum = identifier( "n" ).number( "a" );
+            BooleanExpression or = identifier( "n" ).number( "a" ).eq( q == 2 ? -1 : 0 );
+            for ( int i = 1; i <= 100000; i++ )
+            {
+                sum = sum.add( i );
+                or = or.or( identifier( "n" ).number( "a" ).eq( i ) );
+            }
+            queries[q] = match( node( "n" ) ).where( or ).returns( sum ).toQuery();
+        }
+
+        assertEquals( queries[0].hashCode(), queries[1].hashCode() );
+        assertTrue( queries[0].equals( queries[1] ) );
+        assertFalse( queries[0].equals( queries[2] ) );
+
+        RenderCache cache = new RenderCache( 10 );
+        assertSame( cache.render( queries[0] ), cache.render( queries[1] ) );
+        assertEquals( 1, cache.getHitCount() );
+
+        final int[] literals = new int[1];
+        queries[0].accept( new QueryVisitor()
+        {
+            @Override
+            public void visit( Literal literal )
+            {
+                literals[0]++;
+            }
+        } );
+        assertEquals( 200001, literals[0] );
+        assertTrue( queries[0].getParameters().isEmpty() );
+        assertFalse( CompiledQuery.parameterize( queries[0], Collections.<String, Object>emptyMap() )
+                .getParameters().isEmpty() );
+    }
+
+    @Test
+    public void testVeryLongMixedChainsInQueries()
+    {
+        Identifier n = identifier( "n" );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE ((n.a=0 and n.a=1) or n.a=2) and n.a=3 RETURN n",
+                match( node( "n" ) ).where( n.number( "a" ).eq( 0 ).and( n.number( "a" ).eq( 1 ) ).
+                        or( n.number( "a" ).eq( 2 ) ).and( n.number( "a" ).eq( 3 ) ) ).returns( n ).toString() );
+
+        Query[] queries = new Query[2];
+        BooleanExpression filter = null;
+        for ( int q = 0; q < queries.length; q++ )
+        {
+            filter = n.number( "a" ).eq( 0 );
+            for ( int i = 1; i <= 100000; i++ )
+            {
+                BooleanExpression term = n.number( "a" ).add( i ).eq( i );
+                filter = i % 2 == 0 ? filter.and( term ) : filter.or( term );
+            }
+            queries[q] = match( node( "n" ) ).where( filter ).returns( n ).toQuery();
+        }
+
+        assertEquals( queries[0].hashCode(), queries[1].hashCode() );
+        assertTrue( queries[0].equals( queries[1] ) );
+        assertEquals( queries[0].fingerprint(), queries[1].fingerprint() );
+        String rendered = new RenderCache( 10 ).render( queries[0] );
+        assertTrue( queries[0].estimatedLength() > 0 );
+        assertEquals( filter, simplify( filter ) );
+
+        final int[] literals = new int[1];
+        queries[0].accept( new QueryVisitor()
+        {
+            @Override
+            public void visit( Literal literal )
+            {
+                literals[0]++;
+            }
+        } );
+        assertEquals( 200001, literals[0] );
+        assertTrue( queries[0].getParameters().isEmpty() );
+        assertEquals( 200001, CompiledQuery.parameterize( queries[0], Collections.<String, Object>emptyMap() )
+                .getParameters().size() );
+        assertEquals( rendered, new CompiledQuery( queries[1] ).toString() );
+    }
+
+    @Test
+    public void testInList()
+    {
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.id IN [1,2,3] RETURN n",
+                match( node( "n" ) ).where( identifier( "n" ).property( "id" ).in( 3, 1, 2, 3 ) ).
+                        returns( identifier( "n" ) ).toString() );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.name IN [\"a\",\"b\"] RETURN n",
+                match( node( "n" ) ).where( identifier( "n" ).property( "name" ).in( Arrays.asList( "b", "a", "b" ) ) ).
+                        returns( identifier( "n" ) ).toString() );
+
+        long[] ids = new long[50000];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = ids.length - i / 2;
+        }
+        ExecuteWithParameters query = match( node( "n" ) ).where( identifier( "n" ).property( "id" ).in( ids ) ).
+                returns( identifier( "n" ) ).parameter( "limit", 10 );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.id IN {in_n_id} RETURN n", query.toString() );
+
+        Map<String, Object> parameters = query.getParameters();
+        long[] bound = (long[]) parameters.get( "in_n_id" );
+        assertEquals( 25000, bound.length );
+        assertEquals( 25001, bound[0] );
+        assertEquals( 50000, bound[bound.length - 1] );
+        assertEquals( 10, parameters.get( "limit" ) );
+        assertArrayEquals( bound, (long[]) query.parameterize().getParameters().get( "in_n_id" ) );
+    }
+
+    @Test
+    public void testInListsForTheSameExpression()
+    {
+        long[] first = new long[100];
+        long[] second = new long[100];
+        for ( int i = 0; i < first.length; i++ )
+        {
+            first[i] = i;
+            second[i] = i + first.length;
+        }
+        NumericExpression id = identifier( "n" ).property( "id" );
+        ExecuteWithParameters query = match( node( "n" ) ).
+                where( id.in( first ).or( id.in( second ) ).or( id.in( first.clone() ) ) ).
+                returns( identifier( "n" ) ).parameter( "in_n_id", first );
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.id IN {in_n_id} or n.id IN {in_n_id_2} or n.id IN {in_n_id} RETURN n",
+                query.toString() );
+
+        Map<String, Object> parameters = query.getParameters();
+        assertEquals( 2, parameters.size() );
+        assertArrayEquals( first, (long[]) parameters.get( "in_n_id" ) );
+        assertArrayEquals( second, (long[]) parameters.get( "in_n_id_2" ) );
+        assertEquals( query.toString(), new RenderCache( 16 ).render( query.toQuery() ) );
+        assertArrayEquals( second, (long[]) query.compile().parameters( parameters ).getParameters().get( "in_n_id_2" ) );
+
+        try
+        {
+            query.parameter( "in_n_id_2", second.length );
+            fail( "Parameter of an IN list was replaced" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // expected
+        }
+
+        // The names belong to the lists, so parts render the same inside and outside of the query
+        StringBuilder either = new StringBuilder();
+        id.in( first ).or( id.in( second ) ).asString( either );
+        assertEquals( "n.id IN {in_n_id} or n.id IN {in_n_id_2}", either.toString() );
+
+        Query model = match( node( "n" ) ).where( id.in( first ) ).returns( id.in( second ) ).toQuery();
+        assertQueryEquals( CYPHER + "MATCH (n) WHERE n.id IN {in_n_id} RETURN n.id IN {in_n_id_2}", model.toString() );
+        StringBuilder returns = new StringBuilder();
+        model.getClauses().get( 2 ).asString( returns );
+        assertEquals( "RETURN n.id IN {in_n_id_2}", returns.toString().trim() );
+        final StringBuilder visited = new StringBuilder();
+        model.accept( new QueryVisitor()
+        {
+            @Override
+            public boolean visit( Value value )
+            {
+                if ( value.value instanceof InCollection )
+                {
+                    value.asString( visited.append( ';' ) );
+                }
+                return true;
+            }
+        } );
+        assertEquals( ";n.id IN {in_n_id};n.id IN {in_n_id_2}", visited.toString() );
+        assertEquals( 2, model.getParameters().size() );
+    }
+
+    @Test
+    public void testUnwind()
+    {
+        assertQueryEquals( CYPHER + "UNWIND {rows} AS row MERGE (n:Person {id:row.id}) SET n.name=row.name",
+                unwind( param( "rows" ), identifier( "row" ) ).
+                        merge( node( "n" ).label( "Person" ).values( value( "id", identifier( "row" ).property( "id" ) ) ) ).
+                        set( property( identifier( "n" ).property( "name" ), identifier( "row" ).property( "name" ) ) ).
+                        toString() );
+
+        assertQueryEquals( CYPHER + "MATCH (n) WITH collect(n) AS nodes UNWIND nodes AS m RETURN m",
+                match( node( "n" ) ).
+                        with( as( collect( identifier( "n" ) ), "nodes" ) ).
+                        unwind( identifier( "nodes" ), identifier( "m" ) ).
+                        returns( identifier( "m" ) ).
+                        toString() );
+
+        Query query = unwind( param( "ids" ), identifier( "id" ) ).
+                match( node( "n" ) ).where( identifier( "n" ).property( "id" ).eq( identifier( "id" ) ) ).
+                returns( identifier( "n" ) ).toQuery();
+        assertEquals( query.toString().length(), query.estimatedLength() );
+
+        Query same = unwind( param( "ids" ), identifier( "id" ) ).
+                match( node( "n" ) ).where( identifier( "n" ).property( "id" ).eq( identifier( "id" ) ) ).
+                returns( identifier( "n" ) ).toQuery();
+        assertEquals( query, same );
+        assertEquals( query.hashCode(), same.hashCode() );
+        assertFalse( query.getClauses().get( 0 ).equals( unwind( param( "ids" ), identifier( "n" ) ).toQuery().getClauses().get( 0 ) ) );
+    }
+
+    @Test
+    public void testIdentifiersAreInterned()
+    {
+        assertSame( identifier( "n" ), identifier( "n" ) );
+        assertQueryEquals( CYPHER + "MATCH (`2n`:Movie_2) RETURN `2n`",
+                match( node( "2n" ).label( "Movie_2" ) ).
+                        returns( identifier( "2n" ) ).
+                        toString() );
+    }
+
     @Test
     public void testLabelWithSpecialCharacters()
     {
@@ -28,11 +28,14 @@ import static org.neo4j.cypherdsl.CypherQuery.shortestPath;
 import static org.neo4j.cypherdsl.CypherQuery.start;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonNode;
 import org.junit.*;
 import org.junit.Rule;
 import org.junit.Test;
+import org.neo4j.cypherdsl.result.JSONFormat;
 import org.neo4j.cypherdsl.result.JSONSerializer;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -96,6 +99,163 @@ public class JSONSerializerTest
         }
     }
 
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara", "John friend Joe",
+            "Sara friend Maria", "Joe friend Steve"
+    }, autoIndexNodes = true)
+    public void testStreamingJSONSerialization()
+            throws IOException
+    {
+        data.get();
+
+        JSONSerializer serializer = new JSONSerializer();
+        String query = start( lookup( "john", "node_auto_index", "name", "John" ) ).
+                match( node( "john" ).out( "friend" ).node().out( "friend" ).node( "fof" ) ).
+                returns( as( identifier( "fof" ).property( "name" ), "friend" ), identifier( "john" ) )
+                .toString();
+        try (Transaction tx = graphdb.beginTx()) {
+            String json = serializer.toJSON( graphdb.execute( query ) ).toString();
+
+            StringWriter writer = new StringWriter();
+            serializer.writeJSON( graphdb.execute( query ), writer );
+            Assert.assertEquals( json, writer.toString() );
+            tx.success();
+        }
+    }
+
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara"
+    }, autoIndexNodes = true)
+    public void testValueTypes()
+    {
+        data.get();
+
+        JSONSerializer serializer = new JSONSerializer();
+        String query = "MATCH p=(john {name:'John'})-[r:friend]->() " +
+                "RETURN p, r, 1.5 AS double, true AS boolean, [1, 'two', null] AS list, {key: [2]} AS map";
+        try (Transaction tx = graphdb.beginTx()) {
+            JsonNode row = serializer.toJSON( graphdb.execute( query ) ).get( 0 );
+            Assert.assertEquals( 1.5, row.get( "double" ).getDoubleValue(), 0 );
+            Assert.assertTrue( row.get( "boolean" ).getBooleanValue() );
+            Assert.assertEquals( "[1,\"two\",null]", row.get( "list" ).toString() );
+            Assert.assertEquals( "{\"key\":[2]}", row.get( "map" ).toString() );
+            Assert.assertEquals( "friend", row.get( "r" ).get( "_type" ).getTextValue() );
+            Assert.assertEquals( 2, row.get( "p" ).get( "nodes" ).size() );
+            Assert.assertEquals( "Sara", row.get( "p" ).get( "nodes" ).get( 1 ).get( "name" ).getTextValue() );
+            Assert.assertEquals( row.get( "r" ), row.get( "p" ).get( "relationships" ).get( 0 ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara"
+    }, autoIndexNodes = true)
+    public void testPropertyTypes()
+    {
+        data.get();
+
+        try (Transaction tx = graphdb.beginTx()) {
+            Node node = graphdb.createNode();
+            node.setProperty( "long", 1L );
+            node.setProperty( "int", 2 );
+            node.setProperty( "short", (short) 3 );
+            node.setProperty( "byte", (byte) 4 );
+            node.setProperty( "longs", new long[]{1, 2} );
+            node.setProperty( "doubles", new double[]{1.5, -2} );
+            node.setProperty( "booleans", new boolean[]{true, false} );
+            node.setProperty( "chars", new char[]{'a', '"'} );
+            node.setProperty( "bytes", new byte[]{1, -1} );
+            node.setProperty( "strings", new String[]{"a", "b"} );
+
+            JsonNode properties = new JSONSerializer().toJSON( graphdb.execute( "MATCH (n) WHERE exists(n.longs) RETURN n" ) ).
+                    get( 0 ).get( "n" );
+            Assert.assertTrue( properties.get( "long" ).isLong() );
+            Assert.assertTrue( properties.get( "int" ).isInt() );
+            Assert.assertTrue( properties.get( "short" ).isInt() );
+            Assert.assertTrue( properties.get( "byte" ).isInt() );
+            Assert.assertEquals( "[1,2]", properties.get( "longs" ).toString() );
+            Assert.assertEquals( "[1.5,-2.0]", properties.get( "doubles" ).toString() );
+            Assert.assertEquals( "[true,false]", properties.get( "booleans" ).toString() );
+            Assert.assertEquals( "[\"a\",\"\\\"\"]", properties.get( "chars" ).toString() );
+            Assert.assertEquals( "[1,-1]", properties.get( "bytes" ).toString() );
+            Assert.assertEquals( "[\"a\",\"b\"]", properties.get( "strings" ).toString() );
+            tx.success();
+        }
+    }
+
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara", "John friend Joe"
+    }, autoIndexNodes = true)
+    public void testNodeDeduplication()
+    {
+        data.get();
+
+        String query = "MATCH (john {name:'John'})-[:friend]->(friend) RETURN john, friend ORDER BY friend.name";
+        try (Transaction tx = graphdb.beginTx()) {
+            JsonNode rows = new JSONSerializer( true ).toJSON( graphdb.execute( query ) );
+            Assert.assertEquals( "John", rows.get( 0 ).get( "john" ).get( "name" ).getTextValue() );
+            Assert.assertEquals( "Joe", rows.get( 0 ).get( "friend" ).get( "name" ).getTextValue() );
+            Assert.assertEquals( "{\"_id\":" + data.get().get( "John" ).getId() + "}",
+                    rows.get( 1 ).get( "john" ).toString() );
+            Assert.assertEquals( "Sara", rows.get( 1 ).get( "friend" ).get( "name" ).getTextValue() );
+
+            rows = new JSONSerializer().toJSON( graphdb.execute( query ) );
+            Assert.assertEquals( "John", rows.get( 1 ).get( "john" ).get( "name" ).getTextValue() );
+            tx.success();
+        }
+    }
+
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara", "John friend Joe"
+    }, autoIndexNodes = true)
+    public void testPositionalFormats()
+            throws IOException
+    {
+        data.get();
+
+        String query = "MATCH (john {name:'John'})-[:friend]->(friend) " +
+                "RETURN john.name AS name, friend.name AS friend ORDER BY friend";
+        try (Transaction tx = graphdb.beginTx()) {
+            Assert.assertEquals( "[[\"name\",\"friend\"],[\"John\",\"Joe\"],[\"John\",\"Sara\"]]",
+                    new JSONSerializer( JSONFormat.ROWS, false ).toJSON( graphdb.execute( query ) ).toString() );
+
+            StringWriter writer = new StringWriter();
+            new JSONSerializer( JSONFormat.COLUMNS, false ).writeJSON( graphdb.execute( query ), writer );
+            Assert.assertEquals( "[[\"name\",\"friend\"],[\"John\",\"John\"],[\"Joe\",\"Sara\"]]",
+                    writer.toString() );
+
+            Assert.assertEquals( "[[\"name\",\"friend\"],[],[]]", new JSONSerializer( JSONFormat.COLUMNS, false )
+                    .toJSON( graphdb.execute( query + " LIMIT 0" ) ).toString() );
+            tx.success();
+        }
+    }
+
+    @Test
+    @GraphDescription.Graph(value = {
+            "John friend Sara"
+    }, autoIndexNodes = true)
+    public void testNodeDeduplicationInColumns()
+    {
+        data.get();
+
+        // In row order Sara is first written in the second column, which comes after the first one in the output
+        String query = "MATCH (john {name:'John'})-[:friend]->(sara) UNWIND [[john, sara], [sara, john]] AS pair " +
+                "RETURN pair[0] AS first, pair[1] AS second";
+        try (Transaction tx = graphdb.beginTx()) {
+            JsonNode columns = new JSONSerializer( JSONFormat.COLUMNS, true ).toJSON( graphdb.execute( query ) );
+            Assert.assertEquals( "John", columns.get( 1 ).get( 0 ).get( "name" ).getTextValue() );
+            Assert.assertEquals( "Sara", columns.get( 1 ).get( 1 ).get( "name" ).getTextValue() );
+            Assert.assertEquals( "{\"_id\":" + data.get().get( "Sara" ).getId() + "}", columns.get( 2 ).get( 0 ).toString() );
+            Assert.assertEquals( "{\"_id\":" + data.get().get( "John" ).getId() + "}", columns.get( 2 ).get( 1 ).toString() );
+            tx.success();
+        }
+    }
+
     @Before
     public void setup()
             throws IOException
@@ -0,0 +1,103 @@
+/**
+ * Licensed to Neo Technology under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Neo Technology licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.neo4j.cypherdsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.neo4j.cypherdsl.CypherQuery.as;
+import static org.neo4j.cypherdsl.CypherQuery.count;
+import static org.neo4j.cypherdsl.CypherQuery.create;
+import static org.neo4j.cypherdsl.CypherQuery.identifier;
+import static org.neo4j.cypherdsl.CypherQuery.in;
+import static org.neo4j.cypherdsl.CypherQuery.match;
+import static org.neo4j.cypherdsl.CypherQuery.node;
+import static org.neo4j.cypherdsl.CypherQuery.nodesById;
+import static org.neo4j.cypherdsl.CypherQuery.range;
+import static org.neo4j.cypherdsl.CypherQuery.start;
+import static org.neo4j.cypherdsl.CypherQuery.value;
+
+import org.junit.Test;
+import org.neo4j.cypherdsl.query.Query;
+import org.neo4j.cypherdsl.query.RenderCache;
+
+/**
+ * Tests for structural equality of the query model and the render cache built on it.
+ */
+public class RenderCacheTest
+{
+    @Test
+    public void testIndependentlyBuiltQueriesAreEqual()
+    {
+        assertEquals( friendsOfFriends( "John" ), friendsOfFriends( "John" ) );
+        assertEquals( friendsOfFriends( "John" ).hashCode(), friendsOfFriends( "John" ).hashCode() );
+        assertEquals( forEach(), forEach() );
+
+        assertFalse( friendsOfFriends( "John" ).equals( friendsOfFriends( "Sara" ) ) );
+        assertFalse( match( node( "n" ).out( "KNOWS" ).node( "m" ) ).returns( identifier( "m" ) ).toQuery().equals(
+                match( node( "n" ).in( "KNOWS" ).node( "m" ) ).returns( identifier( "m" ) ).toQuery() ) );
+        assertFalse( identifier( "n" ).number( "age" ).gt( 3 ).and( identifier( "n" ).number( "age" ).lt( 5 ) )
+                .equals( identifier( "n" ).number( "age" ).gt( 3 ).or( identifier( "n" ).number( "age" ).lt( 5 ) ) ) );
+    }
+
+    @Test
+    public void testRenderCacheSharesRenderedString()
+    {
+        RenderCache cache = new RenderCache( 10 );
+
+        String first = cache.render( friendsOfFriends( "John" ) );
+        String second = cache.render( friendsOfFriends( "John" ) );
+
+        assertEquals( friendsOfFriends( "John" ).toString(), first );
+        assertSame( first, second );
+        assertEquals( 1, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+        assertEquals( 1, cache.size() );
+    }
+
+    @Test
+    public void testRenderCacheIsBounded()
+    {
+        RenderCache cache = new RenderCache( 4 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            cache.render( start( nodesById( "n", i ) ).returns( identifier( "n" ) ).toQuery() );
+        }
+
+        assertEquals( 4, cache.size() );
+        assertEquals( 100, cache.getMissCount() );
+    }
+
+    private Query friendsOfFriends( String name )
+    {
+        return match( node( "john" ).values( value( "name", name ) ).out( "friend" ).node().out( "friend" )
+                .node( "fof" ) ).
+                where( identifier( "fof" ).number( "age" ).gt( 18 ) ).
+                returns( identifier( "fof" ), as( count(), "count" ) ).
+                toQuery();
+    }
+
+    private Query forEach()
+    {
+        return create( node( "center" ) ).
+                forEach( in( "x", range( 1, 10 ) ).create( node( "leaf" ), node( "center" ).out( "X" ).node( "leaf" ) ) ).
+                returns( identifier( "center" ) ).
+                toQuery();
+    }
+}
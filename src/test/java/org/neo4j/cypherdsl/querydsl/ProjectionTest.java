@@ -32,8 +32,16 @@ import org.neo4j.test.TestData;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.cypherdsl.CypherQuery.*;
 import static org.neo4j.cypherdsl.query.neo4j.StartExpressionNeo.nodeById;
 
@@ -101,6 +109,106 @@ public class ProjectionTest
         }
     }
 
+    @Test
+    public void testLazyProjection()
+    {
+        final List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put( "name", "Person" + i );
+            row.put( "friend", "Friend" + i );
+            rows.add( row );
+        }
+
+        Projection<Friend> projection = new Projection<Friend>( Friend.class );
+        final int[] read = new int[1];
+        Iterator<Map<String, Object>> result = new Iterator<Map<String, Object>>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return read[0] < rows.size();
+            }
+
+            @Override
+            public Map<String, Object> next()
+            {
+                return rows.get( read[0]++ );
+            }
+        };
+
+        Iterator<Friend> friends = projection.iterator( result, 4 );
+        assertEquals( 0, read[0] );
+        assertTrue( friends.hasNext() );
+        assertEquals( "Person0", friends.next().name );
+        assertEquals( 4, read[0] );
+
+        List<Friend> streamed = projection.stream( rows.iterator() ).collect( Collectors.<Friend>toList() );
+        assertEquals( 10, streamed.size() );
+        assertEquals( "Friend9", streamed.get( 9 ).friend );
+
+        Iterator<Friend> lazy = projection.iterator( rows.iterator() );
+        assertEquals( "Person0", lazy.next().name );
+        int count = 1;
+        while ( lazy.hasNext() )
+        {
+            lazy.next();
+            count++;
+        }
+        assertEquals( 10, count );
+        assertFalse( lazy.hasNext() );
+    }
+
+    @Test
+    public void testBeanMapperConvertsColumnTypes()
+    {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put( "name", "John" );
+        row.put( "age", 42L );
+        row.put( "score", 1.5d );
+        row.put( "active", true );
+        row.put( "friends", 3L );
+        row.put( "unknown", "ignored" );
+
+        BeanMapper<Stats> mapper = BeanMapper.of( Stats.class );
+        assertTrue( mapper == BeanMapper.of( Stats.class ) );
+
+        Stats stats = mapper.map( row );
+        assertEquals( "John", stats.name );
+        assertEquals( 42, stats.age );
+        assertEquals( 1.5d, stats.score, 0 );
+        assertTrue( stats.active );
+        assertEquals( Integer.valueOf( 3 ), stats.friends );
+
+        row.remove( "unknown" );
+        row.put( "friends", null );
+        stats = mapper.map( row );
+        assertEquals( 42, stats.age );
+        assertEquals( null, stats.friends );
+    }
+
+    @Test
+    public void testBeanMapperRebindsColumnsWithSameCount()
+    {
+        Map<String, Object> first = new HashMap<String, Object>();
+        first.put( "a", "1" );
+        first.put( "b", "2" );
+        first.put( "z", "ignored" );
+        Map<String, Object> second = new HashMap<String, Object>();
+        second.put( "a", "3" );
+        second.put( "b", "4" );
+        second.put( "y", "5" );
+
+        BeanMapper<Columns> mapper = BeanMapper.of( Columns.class );
+        assertEquals( null, mapper.map( first ).y );
+        Columns columns = mapper.map( second );
+        assertEquals( "3", columns.a );
+        assertEquals( "4", columns.b );
+        assertEquals( "5", columns.y );
+        assertEquals( null, mapper.map( first ).y );
+    }
+
     @Before
     public void setup()
             throws IOException
@@ -132,4 +240,20 @@ public class ProjectionTest
             return name + " is friend with " + friend;
         }
     }
+
+    public static class Stats
+    {
+        public String name;
+        public int age;
+        public double score;
+        public boolean active;
+        public Integer friends;
+    }
+
+    public static class Columns
+    {
+        public String a;
+        public String b;
+        public String y;
+    }
 }